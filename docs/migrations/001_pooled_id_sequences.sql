@@ -0,0 +1,33 @@
+--
+-- Switch entity ids from one-by-one IDENTITY inserts to pooled sequences (allocationSize = 50).
+-- Hibernate reserves 50 ids per nextval, so the sequences must step by 50 and start past the current max id.
+-- Run once against an existing database, before starting the application on this version.
+-- Tables that do not exist yet are skipped; Hibernate creates their sequences on startup.
+--
+
+DO $$
+DECLARE
+    table_name text;
+    max_id bigint;
+BEGIN
+    FOREACH table_name IN ARRAY ARRAY[
+        'car_models', 'car_options', 'cars', 'option_categories', 'options', 'orders',
+        'users', 'profiles', 'password_reset_token', 'email_verification_token',
+        'email_outbox', 'revoked_tokens', 'refresh_tokens']
+    LOOP
+        IF to_regclass('public.' || table_name) IS NULL THEN
+            CONTINUE;
+        END IF;
+
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM public.%I', table_name) INTO max_id;
+
+        IF to_regclass('public.' || table_name || '_id_seq') IS NULL THEN
+            EXECUTE format('CREATE SEQUENCE public.%I INCREMENT BY 50', table_name || '_id_seq');
+        ELSE
+            EXECUTE format('ALTER SEQUENCE public.%I INCREMENT BY 50', table_name || '_id_seq');
+        END IF;
+
+        -- the pooled optimizer treats the value returned by nextval as the top of the next block of 50
+        PERFORM setval('public.' || table_name || '_id_seq', max_id + 50, false);
+    END LOOP;
+END $$;
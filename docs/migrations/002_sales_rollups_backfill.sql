@@ -0,0 +1,14 @@
+--
+-- Backfill sales_rollups from the existing orders. Run once after the application has created the table on startup,
+-- or call POST api/reports/rollups/rebuild as an admin instead. Safe to re-run: it recomputes every rollup from scratch.
+--
+BEGIN;
+LOCK TABLE sales_rollups IN EXCLUSIVE MODE;
+DELETE FROM sales_rollups;
+INSERT INTO sales_rollups (day, salesman_id, car_model_id, order_count, revenue)
+SELECT CAST(o.created_at AS date), o.salesman_id, c.car_model_id, count(*), coalesce(sum(o.total_price), 0)
+FROM orders o
+JOIN cars c ON c.order_id = o.id
+WHERE o.salesman_id IS NOT NULL AND c.car_model_id IS NOT NULL
+GROUP BY CAST(o.created_at AS date), o.salesman_id, c.car_model_id;
+COMMIT;
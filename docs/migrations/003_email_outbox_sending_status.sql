@@ -0,0 +1,7 @@
+--
+-- Allow the SENDING outbox status. Hibernate creates a check constraint listing the enum values when it creates
+-- email_outbox, and ddl-auto=update does not widen it. Run once before deploying the leased dispatcher.
+--
+ALTER TABLE email_outbox DROP CONSTRAINT IF EXISTS email_outbox_status_check;
+ALTER TABLE email_outbox ADD CONSTRAINT email_outbox_status_check
+    CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'DEAD'));
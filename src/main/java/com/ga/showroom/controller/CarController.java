@@ -1,6 +1,7 @@
 package com.ga.showroom.controller;
 
 import com.ga.showroom.model.Car;
+import com.ga.showroom.model.response.CursorPage;
 import com.ga.showroom.service.CarService;
 import com.ga.showroom.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -71,12 +72,15 @@ public class CarController {
     }
 
     /**
-     * Get all cars in storage
-     * @return List of Car
+     * Get a page of cars in storage, newest first
+     * @param cursor String optional next cursor of the previous page
+     * @param limit Integer optional page size, default 50, at most 200
+     * @return CursorPage of Car
      */
     @GetMapping("")
-    public List<Car> getCars() {
-        return carService.getAllCars();
+    public CursorPage<Car> getCars(@RequestParam(value = "cursor", required = false) String cursor,
+                                   @RequestParam(value = "limit", required = false) Integer limit) {
+        return carService.getAllCars(cursor, limit);
     }
 
     /**
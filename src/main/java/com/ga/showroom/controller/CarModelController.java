@@ -3,6 +3,7 @@ package com.ga.showroom.controller;
 import com.ga.showroom.model.Car;
 import com.ga.showroom.model.CarModel;
 import com.ga.showroom.model.Option;
+import com.ga.showroom.model.response.CursorPage;
 import com.ga.showroom.service.CarModelService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
@@ -52,12 +53,15 @@ public class CarModelController {
     }
 
     /**
-     * Get all car models list
-     * @return List of CarModel
+     * Get a page of car models, newest first
+     * @param cursor String optional next cursor of the previous page
+     * @param limit Integer optional page size, default 50, at most 200
+     * @return CursorPage of CarModel
      */
     @GetMapping("")
-    public List<CarModel> getAllCarModels() {
-        return carModelService.getAllCarModels();
+    public CursorPage<CarModel> getAllCarModels(@RequestParam(value = "cursor", required = false) String cursor,
+                                                @RequestParam(value = "limit", required = false) Integer limit) {
+        return carModelService.getAllCarModels(cursor, limit);
     }
 
     /**
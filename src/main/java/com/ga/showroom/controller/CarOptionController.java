@@ -1,6 +1,7 @@
 package com.ga.showroom.controller;
 
 import com.ga.showroom.model.CarOption;
+import com.ga.showroom.model.response.CursorPage;
 import com.ga.showroom.service.CarOptionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -25,13 +26,16 @@ public class CarOptionController {
     }
 
     /**
-     * Get all car options
+     * Get a page of car options, newest first
      * @see GetMapping api/car-options
-     * @return List of CarOption
+     * @param cursor String optional next cursor of the previous page
+     * @param limit Integer optional page size, default 50, at most 200
+     * @return CursorPage of CarOption
      */
     @GetMapping("")
-    public List<CarOption> getAllCarOptions() {
-        return carOptionService.getAll();
+    public CursorPage<CarOption> getAllCarOptions(@RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "limit", required = false) Integer limit) {
+        return carOptionService.getAll(cursor, limit);
     }
 
     /**
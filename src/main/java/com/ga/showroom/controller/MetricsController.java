@@ -0,0 +1,36 @@
+package com.ga.showroom.controller;
+
+import com.ga.showroom.service.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Metrics API
+ */
+@RestController
+@RequestMapping(path = "api/metrics")
+public class MetricsController {
+    private MetricsService metricsService;
+
+    /**
+     * Initialize Metrics service
+     * @param metricsService MetricsService
+     */
+    @Autowired
+    public void setMetricsService(MetricsService metricsService) {
+        this.metricsService = metricsService;
+    }
+
+    /**
+     * Get cache and limiter counters. Admin only.
+     * @return Map of metric group name to its counters
+     */
+    @GetMapping("")
+    public Map<String, Object> getMetrics() {
+        return metricsService.getMetrics();
+    }
+}
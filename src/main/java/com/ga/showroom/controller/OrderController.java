@@ -1,14 +1,35 @@
 package com.ga.showroom.controller;
 
+import com.ga.showroom.exception.BadRequestException;
 import com.ga.showroom.model.Car;
 import com.ga.showroom.model.Order;
 import com.ga.showroom.model.request.CreateOrderRequest;
+import com.ga.showroom.model.response.CursorPage;
+import com.ga.showroom.model.response.OrderBucket;
+import com.ga.showroom.model.response.ReceiptJob;
+import com.ga.showroom.service.IdempotencyService;
+import com.ga.showroom.service.OrderEventStream;
+import com.ga.showroom.service.OrderExportService;
+import com.ga.showroom.service.OrderImportService;
 import com.ga.showroom.service.OrderService;
-import com.ga.showroom.service.PdfGenerationService;
-import jakarta.mail.MessagingException;
+import com.ga.showroom.service.ReceiptArchiveService;
+import com.ga.showroom.service.ReceiptCacheService;
+import com.ga.showroom.service.ReceiptJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -25,18 +46,21 @@ public class OrderController {
     private OrderService orderService;
 
     /**
-     * Initialize pdfGenerationService
+     * Initialize receiptJobService
      */
     @Autowired
-    private PdfGenerationService pdfGenerationService;
+    private ReceiptJobService receiptJobService;
 
     /**
-     * Get all orders in storage
-     * @return List of Order
+     * Get a page of orders in storage, newest first
+     * @param cursor String optional next cursor of the previous page
+     * @param limit Integer optional page size, default 50, at most 200
+     * @return CursorPage of Order
      */
     @GetMapping("")
-    public List<Order> getAllOrders() {
-        return orderService.getAll();
+    public CursorPage<Order> getAllOrders(@RequestParam(value = "cursor", required = false) String cursor,
+                                          @RequestParam(value = "limit", required = false) Integer limit) {
+        return orderService.getAll(cursor, limit);
     }
 
     /**
@@ -50,8 +74,24 @@ public class OrderController {
     }
 
     /**
-     * Get all orders done on a specific date
-     * @param orderDate LocalDateTime
+     * Initialize orderEventStream
+     */
+    @Autowired
+    private OrderEventStream orderEventStream;
+
+    /**
+     * Stream new orders as server-sent events. Customers only receive their own orders.
+     * @param lastEventId String optional Last-Event-ID header to resume after
+     * @return SseEmitter order-created events of OrderCreatedEvent
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return orderEventStream.subscribe(lastEventId);
+    }
+
+    /**
+     * Get all orders done on a specific calendar day
+     * @param orderDate LocalDateTime any time on the day
      * @return List of Order
      */
     @GetMapping("/date/{orderDate}")
@@ -59,6 +99,23 @@ public class OrderController {
         return orderService.getByOrderDate(orderDate);
     }
 
+    /**
+     * Count and total orders conducted between start (inclusive) and end (exclusive) per day, week or month
+     * @param unit String day, week or month
+     * @param startDate LocalDateTime
+     * @param endDate LocalDateTime
+     * @param customerId Long optional, staff only
+     * @param salesmanId Long optional, staff only
+     * @return List of OrderBucket [start, orders, revenue]
+     */
+    @GetMapping("/buckets")
+    public List<OrderBucket> getOrderBuckets(@RequestParam(value = "unit", defaultValue = "day") String unit,
+                                             @RequestParam("startDate") LocalDateTime startDate, @RequestParam("endDate") LocalDateTime endDate,
+                                             @RequestParam(value = "customerId", required = false) Long customerId,
+                                             @RequestParam(value = "salesmanId", required = false) Long salesmanId) {
+        return orderService.getOrderBuckets(unit, startDate, endDate, customerId, salesmanId);
+    }
+
     /**
      * Get all orders belonging to a specific customer
      * @param customerId Long
@@ -80,37 +137,168 @@ public class OrderController {
     }
 
     /**
-     * Get all orders conducted between start and end date.
+     * Get a page of orders conducted between start and end date, newest first.
      * @param startDate LocalDateTime
      * @param endDate LocalDateTime
-     * @return List of Order
+     * @param cursor String optional next cursor of the previous page
+     * @param limit Integer optional page size, default 50, at most 200
+     * @return CursorPage of Order
      */
     @GetMapping("/between")
-    public List<Order> getOrdersByOrderDateBetween(@RequestParam("startDate") LocalDateTime startDate, @RequestParam("endDate") LocalDateTime endDate) {
-        return orderService.getByOrderDateBetween(startDate, endDate);
+    public CursorPage<Order> getOrdersByOrderDateBetween(@RequestParam("startDate") LocalDateTime startDate, @RequestParam("endDate") LocalDateTime endDate,
+                                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                                         @RequestParam(value = "limit", required = false) Integer limit) {
+        return orderService.getByOrderDateBetween(startDate, endDate, cursor, limit);
+    }
+
+    /**
+     * Initialize orderExportService
+     */
+    @Autowired
+    private OrderExportService orderExportService;
+
+    /**
+     * Export all orders conducted between start and end date, streamed oldest first as NDJSON or CSV
+     * @param startDate LocalDateTime
+     * @param endDate LocalDateTime
+     * @param format String ndjson (default) or csv
+     * @return StreamingResponseBody one OrderExportRow per line
+     */
+    @GetMapping(path = "/export", produces = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam("startDate") LocalDateTime startDate, @RequestParam("endDate") LocalDateTime endDate,
+                                                              @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format))
+            throw new BadRequestException("format must be ndjson or csv");
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? "text/csv" : "application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"")
+                .body(orderExportService.exportOrders(startDate, endDate, csv));
     }
 
     /**
-     * Create a new car order
+     * Initialize orderImportService
+     */
+    @Autowired
+    private OrderImportService orderImportService;
+
+    /**
+     * Initialize idempotencyService
+     */
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    /**
+     * Create a new car order. Retries sent with the same Idempotency-Key get the order created by the first request.
+     * @param idempotencyKey String optional Idempotency-Key header
      * @param request CreateOrderRequest [Car, modelId, ownerId, List of options]
      * @return Order
      */
     @PostMapping("")
-    public Order createOrder(@RequestBody CreateOrderRequest request) {
+    public Order createOrder(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                             @RequestBody CreateOrderRequest request) {
             Car car = request.getCar();
             Long modelId = request.getModelId();
             Long ownerId = request.getOwnerId();
             List<Long> optionIds = request.getOptions();
 
-            return orderService.createOrder(car, modelId, ownerId,optionIds);
+            if (idempotencyKey == null) return orderService.createOrder(car, modelId, ownerId, optionIds);
+
+            Long orderId = idempotencyService.execute(idempotencyKey, request.fingerprint(),
+                    () -> orderService.createOrder(car, modelId, ownerId, optionIds).getId());
+
+            return orderService.getById(orderId);
     }
 
     /**
-     * Get the order receipt attachment
+     * Import orders in bulk from an NDJSON or CSV file, streaming back one result per row
+     * @param contentType String application/x-ndjson or text/csv
+     * @param body InputStream uploaded file
+     * @return StreamingResponseBody NDJSON lines of ImportOrderResult [line, status, orderId, error]
+     */
+    @PostMapping(path = "/import", consumes = {"application/x-ndjson", "text/csv"}, produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importOrders(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                              InputStream body) {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(orderImportService.importOrders(body, csv));
+    }
+
+    /**
+     * Queue the order receipt to be rendered and emailed to the customer. Repeated requests while it is
+     * in progress return the same job.
      * @param orderId Long
+     * @return ReceiptJob [jobId, orderId, status], 202 Accepted with the job's status URL as Location
      */
     @GetMapping(path = "/{orderId}/receipt")
-    public String generateOrderReceipt(@PathVariable("orderId") Long orderId) throws MessagingException {
-        return pdfGenerationService.generateOrderReceipt(orderId);
+    public ResponseEntity<ReceiptJob> generateOrderReceipt(@PathVariable("orderId") Long orderId) {
+        ReceiptJob job = receiptJobService.submit(orderId);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/receipt-jobs/" + job.jobId()))
+                .body(job);
+    }
+
+    /**
+     * Initialize receiptCacheService
+     */
+    @Autowired
+    private ReceiptCacheService receiptCacheService;
+
+    /**
+     * Download the order receipt PDF. Served from the stored copy of the order's current version, with a strong
+     * ETag; a matching If-None-Match gets 304 Not Modified without reading or rendering the receipt.
+     * @param orderId Long
+     * @param request WebRequest
+     * @return ResponseEntity Resource the receipt PDF
+     */
+    @GetMapping(path = "/{orderId}/receipt/download")
+    public ResponseEntity<Resource> downloadOrderReceipt(@PathVariable("orderId") Long orderId, WebRequest request) {
+        if (request.checkNotModified(receiptCacheService.getReceiptETag(orderId))) return null; // 304 already set
+
+        ReceiptCacheService.ReceiptFile receipt = receiptCacheService.getReceipt(orderId);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .eTag(receipt.eTag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"order-" + orderId + "-receipt.pdf\"")
+                .body(new FileSystemResource(receipt.path()));
+    }
+
+    /**
+     * Initialize receiptArchiveService
+     */
+    @Autowired
+    private ReceiptArchiveService receiptArchiveService;
+
+    /**
+     * Download a ZIP of the receipts of every order created between two days, inclusive, without emailing customers.
+     * Admin only.
+     * @param startDate LocalDate
+     * @param endDate LocalDate
+     * @return StreamingResponseBody ZIP of receipt-{orderId}.pdf entries, written as receipts finish rendering
+     */
+    @GetMapping(path = "/receipts/archive", produces = "application/zip")
+    public ResponseEntity<StreamingResponseBody> archiveReceipts(@RequestParam("startDate") LocalDate startDate, @RequestParam("endDate") LocalDate endDate) {
+        StreamingResponseBody archive = receiptArchiveService.archiveReceipts(startDate, endDate);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"receipts-" + startDate + "-" + endDate + ".zip\"")
+                .body(archive);
+    }
+
+    /**
+     * Get a receipt job's status: QUEUED, RENDERED, MAILED or FAILED
+     * @param jobId String
+     * @return ReceiptJob
+     */
+    @GetMapping(path = "/receipt-jobs/{jobId}")
+    public ReceiptJob getReceiptJob(@PathVariable("jobId") String jobId) {
+        return receiptJobService.getJob(jobId);
     }
 }
@@ -0,0 +1,38 @@
+package com.ga.showroom.controller;
+
+import com.ga.showroom.model.request.QuoteRequest;
+import com.ga.showroom.model.response.Quote;
+import com.ga.showroom.service.PriceEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Quote API
+ */
+@RestController
+@RequestMapping(path = "api/quotes")
+public class QuoteController {
+    private PriceEngine priceEngine;
+
+    /**
+     * Initialize price engine
+     * @param priceEngine PriceEngine
+     */
+    @Autowired
+    public void setPriceEngine(PriceEngine priceEngine) {
+        this.priceEngine = priceEngine;
+    }
+
+    /**
+     * Price a car model configuration without creating an order
+     * @param quoteRequest QuoteRequest [modelId, List of options]
+     * @return Quote
+     */
+    @PostMapping("")
+    public Quote createQuote(@RequestBody QuoteRequest quoteRequest) {
+        return priceEngine.quote(quoteRequest.getModelId(), quoteRequest.getOptions());
+    }
+}
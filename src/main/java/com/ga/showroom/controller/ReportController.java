@@ -0,0 +1,105 @@
+package com.ga.showroom.controller;
+
+import com.ga.showroom.model.dto.DailySales;
+import com.ga.showroom.model.dto.SalesTotals;
+import com.ga.showroom.service.SalesReportService;
+import com.ga.showroom.service.SalesRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sales report API, read from the sales rollups
+ */
+@RestController
+@RequestMapping(path = "api/reports")
+public class ReportController {
+    private SalesRollupService salesRollupService;
+    private SalesReportService salesReportService;
+
+    /**
+     * Initialize sales rollup service
+     * @param salesRollupService SalesRollupService
+     */
+    @Autowired
+    public void setSalesRollupService(SalesRollupService salesRollupService) {
+        this.salesRollupService = salesRollupService;
+    }
+
+    /**
+     * Initialize sales report service
+     * @param salesReportService SalesReportService
+     */
+    @Autowired
+    public void setSalesReportService(SalesReportService salesReportService) {
+        this.salesReportService = salesReportService;
+    }
+
+    /**
+     * Get sales per salesman between two days, inclusive. Staff only.
+     * @param startDate LocalDate
+     * @param endDate LocalDate
+     * @return List of SalesTotals [id, name, orders, revenue]
+     */
+    @GetMapping("/sales/salesmen")
+    public List<SalesTotals> getSalesBySalesman(@RequestParam("startDate") LocalDate startDate, @RequestParam("endDate") LocalDate endDate) {
+        return salesRollupService.getSalesBySalesman(startDate, endDate);
+    }
+
+    /**
+     * Get sales per car model between two days, inclusive. Staff only.
+     * @param startDate LocalDate
+     * @param endDate LocalDate
+     * @return List of SalesTotals [id, name, orders, revenue]
+     */
+    @GetMapping("/sales/models")
+    public List<SalesTotals> getSalesByCarModel(@RequestParam("startDate") LocalDate startDate, @RequestParam("endDate") LocalDate endDate) {
+        return salesRollupService.getSalesByCarModel(startDate, endDate);
+    }
+
+    /**
+     * Get sales per day between two days, inclusive, optionally for one salesman. Staff only.
+     * @param startDate LocalDate
+     * @param endDate LocalDate
+     * @param salesmanId Long optional
+     * @return List of DailySales [day, orders, revenue]
+     */
+    @GetMapping("/sales/days")
+    public List<DailySales> getSalesByDay(@RequestParam("startDate") LocalDate startDate, @RequestParam("endDate") LocalDate endDate,
+                                          @RequestParam(value = "salesmanId", required = false) Long salesmanId) {
+        return salesRollupService.getSalesByDay(startDate, endDate, salesmanId);
+    }
+
+    /**
+     * Download the sales report PDF of every order between two days, inclusive, grouped by salesman and car model
+     * with subtotals. Staff only.
+     * @param startDate LocalDate
+     * @param endDate LocalDate
+     * @return StreamingResponseBody the PDF, written as it is rendered
+     */
+    @GetMapping(path = "/sales/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<StreamingResponseBody> getSalesReportPdf(@RequestParam("startDate") LocalDate startDate, @RequestParam("endDate") LocalDate endDate) {
+        StreamingResponseBody report = salesReportService.renderSalesReport(startDate, endDate);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sales-report-" + startDate + "-" + endDate + ".pdf\"")
+                .body(report);
+    }
+
+    /**
+     * Recompute the sales rollups from the orders table. Admin only.
+     * @return Map of rebuild counters
+     */
+    @PostMapping("/rollups/rebuild")
+    public Map<String, Object> rebuildRollups() {
+        return salesRollupService.rebuildNow();
+    }
+}
@@ -5,6 +5,7 @@ import com.ga.showroom.model.UserProfile;
 import com.ga.showroom.model.enums.Role;
 import com.ga.showroom.model.request.*;
 import com.ga.showroom.model.response.ChangePasswordResponse;
+import com.ga.showroom.model.response.LoginResponse;
 import com.ga.showroom.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
@@ -50,6 +51,30 @@ public class UserController {
         return userService.loginUser(loginRequest);
     }
 
+    /**
+     * Exchange a refresh token for a new access token, rotating the refresh token
+     * @param refreshTokenRequest RefreshTokenRequest [refreshToken]
+     * @return LoginResponse [access token, refresh token]
+     */
+    @PostMapping("/refresh")
+    public LoginResponse refreshToken(@RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return userService.refreshToken(refreshTokenRequest.getRefreshToken());
+    }
+
+    /**
+     * Logout the current user, revoking the access token sent with the request
+     * and the refresh token if one is given
+     * @param authorization String Authorization header "Bearer {token}"
+     * @param refreshTokenRequest RefreshTokenRequest [refreshToken] optional
+     * @return ResponseEntity ? Ok message
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authorization,
+                                    @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+        userService.logout(authorization, refreshTokenRequest == null ? null : refreshTokenRequest.getRefreshToken());
+        return ResponseEntity.ok("Logged out successfully");
+    }
+
     /**
      * Change existing user's password
      * @param changePasswordRequest ChangePasswordRequest [oldPassword, newPassword]
@@ -0,0 +1,9 @@
+package com.ga.showroom.event;
+
+/**
+ * Published whenever a car model's or option's price or availability changes,
+ * so price tables built from the catalog can be rebuilt.
+ * @param carModelId Long the changed car model, or null if any model may have changed
+ */
+public record CatalogChangedEvent(Long carModelId) {
+}
@@ -0,0 +1,16 @@
+package com.ga.showroom.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when an order is created, and pushed to order stream subscribers once its transaction commits
+ * @param orderId Long
+ * @param customerId Long
+ * @param salesmanId Long
+ * @param carModelId Long
+ * @param totalPrice Double
+ * @param createdAt LocalDateTime
+ */
+public record OrderCreatedEvent(Long orderId, Long customerId, Long salesmanId, Long carModelId, Double totalPrice,
+                                LocalDateTime createdAt) {
+}
@@ -0,0 +1,9 @@
+package com.ga.showroom.event;
+
+/**
+ * Published whenever a user's role, status, password, verification or profile changes,
+ * so cached copies of that user can be dropped.
+ * @param emailAddress String the changed user's email address
+ */
+public record UserChangedEvent(String emailAddress) {
+}
@@ -19,11 +19,15 @@ import java.util.List;
 @Setter
 @Getter
 @Entity
-@Table(name = "cars")
+@Table(name = "cars", indexes = {
+        @Index(name = "idx_cars_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_cars_owner_id_created_at_id", columnList = "owner_id, created_at, id")
+})
 public class Car {
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cars_id_seq")
+    @SequenceGenerator(name = "cars_id_seq", sequenceName = "cars_id_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -19,11 +19,14 @@ import java.util.List;
 @Setter
 @Getter
 @Entity
-@Table(name = "car_models")
+@Table(name = "car_models", indexes = {
+        @Index(name = "idx_car_models_created_at_id", columnList = "created_at, id")
+})
 public class CarModel {
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_models_id_seq")
+    @SequenceGenerator(name = "car_models_id_seq", sequenceName = "car_models_id_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -16,11 +16,15 @@ import java.time.LocalDateTime;
 @Setter
 @Getter
 @Entity
-@Table(name = "car_options")
+@Table(name = "car_options", indexes = {
+        @Index(name = "idx_car_options_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_car_options_car_id", columnList = "car_id")
+})
 public class CarOption {
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_options_id_seq")
+    @SequenceGenerator(name = "car_options_id_seq", sequenceName = "car_options_id_seq", allocationSize = 50)
     private Long id;
 
     @JsonIgnore
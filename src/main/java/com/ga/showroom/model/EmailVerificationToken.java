@@ -8,13 +8,17 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_email_verification_token_expiry_date", columnList = "expiry_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class EmailVerificationToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_verification_token_id_seq")
+    @SequenceGenerator(name = "email_verification_token_id_seq", sequenceName = "email_verification_token_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
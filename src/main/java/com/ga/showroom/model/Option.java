@@ -22,7 +22,8 @@ public class Option {
 
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "options_id_seq")
+    @SequenceGenerator(name = "options_id_seq", sequenceName = "options_id_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -20,7 +20,8 @@ import java.util.List;
 public class OptionCategory {
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "option_categories_id_seq")
+    @SequenceGenerator(name = "option_categories_id_seq", sequenceName = "option_categories_id_seq", allocationSize = 50)
     private Long id;
 
     @Column
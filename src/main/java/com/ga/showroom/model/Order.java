@@ -16,11 +16,16 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Setter@Getter
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_customer_id_created_at_id", columnList = "customer_id, created_at, id"),
+        @Index(name = "idx_orders_salesman_id_created_at", columnList = "salesman_id, created_at")
+})
 public class Order {
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_seq")
+    @SequenceGenerator(name = "orders_id_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Long id;
 
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
@@ -6,13 +6,17 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_password_reset_token_expiry_date", columnList = "expiry_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class PasswordResetToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "password_reset_token_id_seq")
+    @SequenceGenerator(name = "password_reset_token_id_seq", sequenceName = "password_reset_token_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -0,0 +1,50 @@
+package com.ga.showroom.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revoked access token (tokenId set, e.g. logout), or all of a user's tokens issued up to
+ * revokedAt (tokenId null, e.g. soft delete or password change). Kept until expiresAt, after which
+ * every token it covers has expired anyway.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+    @Id
+    @Column
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revoked_tokens_id_seq")
+    @SequenceGenerator(name = "revoked_tokens_id_seq", sequenceName = "revoked_tokens_id_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * JWT ID (jti) of the revoked token, null when all of the user's tokens are revoked
+     */
+    @Column
+    private String tokenId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column
+    private LocalDateTime createdAt;
+}
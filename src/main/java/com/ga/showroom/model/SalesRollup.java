@@ -0,0 +1,31 @@
+package com.ga.showroom.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Order count and revenue per day, salesman and car model. Maintained incrementally in the transaction that
+ * creates the orders and rebuilt from the orders table by SalesRollupService.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@Entity
+@Table(name = "sales_rollups", indexes = {
+        @Index(name = "idx_sales_rollups_salesman_id_day", columnList = "salesman_id, day"),
+        @Index(name = "idx_sales_rollups_day", columnList = "day")
+})
+public class SalesRollup {
+    @EmbeddedId
+    private SalesRollupId id;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false)
+    private Double revenue;
+}
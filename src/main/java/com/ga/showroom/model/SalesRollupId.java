@@ -0,0 +1,32 @@
+package com.ga.showroom.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Sales rollup key: one row per day, salesman and car model
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@EqualsAndHashCode
+@Embeddable
+public class SalesRollupId implements Serializable {
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "salesman_id")
+    private Long salesmanId;
+
+    @Column(name = "car_model_id")
+    private Long carModelId;
+}
@@ -3,6 +3,9 @@ package com.ga.showroom.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "profiles")
@@ -14,7 +17,8 @@ import lombok.*;
 public class UserProfile {
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "profiles_id_seq")
+    @SequenceGenerator(name = "profiles_id_seq", sequenceName = "profiles_id_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -35,6 +39,10 @@ public class UserProfile {
     @Column
     private String cprImage;
 
+    @JsonIgnore
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
     @JsonIgnore
     @OneToOne(mappedBy = "userProfile")
     private User user;
@@ -0,0 +1,12 @@
+package com.ga.showroom.model.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Rolled-up sales of one day
+ * @param day LocalDate
+ * @param orders Long number of orders
+ * @param revenue Double sum of order totals
+ */
+public record DailySales(LocalDate day, Long orders, Double revenue) {
+}
@@ -0,0 +1,9 @@
+package com.ga.showroom.model.dto;
+
+/**
+ * Car model fields needed to price a configuration
+ * @param id Long car model ID
+ * @param price Double base price
+ */
+public record ModelPrice(Long id, Double price) {
+}
@@ -0,0 +1,10 @@
+package com.ga.showroom.model.dto;
+
+/**
+ * Option fields needed to price and validate an order, without loading the Option entity graph
+ * @param id Long option ID
+ * @param carModelId Long ID of the CarModel the option belongs to
+ * @param price Double
+ */
+public record OptionPrice(Long id, Long carModelId, Double price) {
+}
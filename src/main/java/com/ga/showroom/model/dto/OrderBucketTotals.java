@@ -0,0 +1,21 @@
+package com.ga.showroom.model.dto;
+
+/**
+ * Order count and revenue of one day, week or month bucket, read from a native GROUP BY query
+ */
+public interface OrderBucketTotals {
+    /**
+     * @return String first day of the bucket, formatted yyyy-MM-dd
+     */
+    String getBucket();
+
+    /**
+     * @return Long number of orders in the bucket
+     */
+    Long getOrders();
+
+    /**
+     * @return Double sum of the bucket's order totals
+     */
+    Double getRevenue();
+}
@@ -0,0 +1,47 @@
+package com.ga.showroom.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order flattened with its customer, salesman, car and car model into one export row
+ */
+public record OrderExportRow(Long orderId,
+                             LocalDateTime createdAt,
+                             Double totalPrice,
+                             Long customerId,
+                             String customerEmail,
+                             Long salesmanId,
+                             String salesmanEmail,
+                             Long carId,
+                             String vinNumber,
+                             String registrationNumber,
+                             String insurancePolicy,
+                             Long carModelId,
+                             String carModelName) {
+    /**
+     * CSV header matching toCsv's columns
+     */
+    public static final String CSV_HEADER = "orderId,createdAt,totalPrice,customerId,customerEmail,salesmanId,salesmanEmail," +
+            "carId,vinNumber,registrationNumber,insurancePolicy,carModelId,carModelName";
+
+    /**
+     * Format as one CSV line, quoting values that contain separators or quotes
+     * @return String
+     */
+    public String toCsv() {
+        return String.join(",",
+                csv(orderId), csv(createdAt), csv(totalPrice), csv(customerId), csv(customerEmail), csv(salesmanId),
+                csv(salesmanEmail), csv(carId), csv(vinNumber), csv(registrationNumber), csv(insurancePolicy),
+                csv(carModelId), csv(carModelName));
+    }
+
+    private static String csv(Object value) {
+        if (value == null) return "";
+
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r"))
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+
+        return text;
+    }
+}
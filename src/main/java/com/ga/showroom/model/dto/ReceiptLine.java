@@ -0,0 +1,10 @@
+package com.ga.showroom.model.dto;
+
+/**
+ * One option line of an order receipt
+ * @param category String option category name
+ * @param option String option name
+ * @param price Double option price
+ */
+public record ReceiptLine(String category, String option, Double price) {
+}
@@ -0,0 +1,27 @@
+package com.ga.showroom.model.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Identifies a rendered receipt's version: the latest change to anything the receipt shows, and the number
+ * of option lines so a removed option also changes it
+ * @param orderId Long
+ * @param customerId Long
+ * @param versionAt LocalDateTime latest of the order, car, car model, profile and option timestamps
+ * @param optionCount Long
+ */
+public record ReceiptVersion(Long orderId, Long customerId, LocalDateTime versionAt, Long optionCount) {
+    /**
+     * Version from each receipt source's timestamps, used by the JPQL constructor expression. Null timestamps are skipped.
+     */
+    public ReceiptVersion(Long orderId, Long customerId, LocalDateTime orderCreatedAt, LocalDateTime orderUpdatedAt,
+                          LocalDateTime carUpdatedAt, LocalDateTime carModelUpdatedAt, LocalDateTime profileUpdatedAt,
+                          LocalDateTime optionsUpdatedAt, Long optionCount) {
+        this(orderId, customerId, Stream.of(orderCreatedAt, orderUpdatedAt, carUpdatedAt, carModelUpdatedAt, profileUpdatedAt, optionsUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null), optionCount);
+    }
+}
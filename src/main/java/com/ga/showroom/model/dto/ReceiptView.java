@@ -0,0 +1,52 @@
+package com.ga.showroom.model.dto;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.List;
+
+/**
+ * Everything an order receipt shows, flattened from the order, its customer and profile, car, car model
+ * and options. Loaded with one query for the order and one for its option lines.
+ */
+public record ReceiptView(Long orderId,
+                          Long customerId,
+                          LocalDateTime createdAt,
+                          LocalDateTime updatedAt,
+                          Double totalPrice,
+                          String firstName,
+                          String lastName,
+                          String emailAddress,
+                          Long phoneNumber,
+                          String homeAddress,
+                          Long cpr,
+                          String carModelName,
+                          Year makeYear,
+                          String manufacturer,
+                          Double carModelPrice,
+                          String vinNumber,
+                          String registrationNumber,
+                          String insurancePolicy,
+                          List<ReceiptLine> lines) {
+    /**
+     * Receipt without its option lines, used by the JPQL constructor expression
+     */
+    public ReceiptView(Long orderId, Long customerId, LocalDateTime createdAt, LocalDateTime updatedAt, Double totalPrice,
+                       String firstName, String lastName, String emailAddress, Long phoneNumber, String homeAddress, Long cpr,
+                       String carModelName, Year makeYear, String manufacturer, Double carModelPrice,
+                       String vinNumber, String registrationNumber, String insurancePolicy) {
+        this(orderId, customerId, createdAt, updatedAt, totalPrice, firstName, lastName, emailAddress, phoneNumber,
+                homeAddress, cpr, carModelName, makeYear, manufacturer, carModelPrice, vinNumber, registrationNumber,
+                insurancePolicy, List.of());
+    }
+
+    /**
+     * Copy of this receipt with its option lines
+     * @param lines List of ReceiptLine
+     * @return ReceiptView
+     */
+    public ReceiptView withLines(List<ReceiptLine> lines) {
+        return new ReceiptView(orderId, customerId, createdAt, updatedAt, totalPrice, firstName, lastName, emailAddress,
+                phoneNumber, homeAddress, cpr, carModelName, makeYear, manufacturer, carModelPrice, vinNumber,
+                registrationNumber, insurancePolicy, lines);
+    }
+}
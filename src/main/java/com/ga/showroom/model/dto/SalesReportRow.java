@@ -0,0 +1,19 @@
+package com.ga.showroom.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One order line of the sales report, read in (salesman, car model, order) order
+ * @param salesmanId Long
+ * @param salesmanEmail String
+ * @param carModelId Long
+ * @param carModelName String
+ * @param orderId Long
+ * @param createdAt LocalDateTime
+ * @param customerEmail String
+ * @param vinNumber String
+ * @param totalPrice Double
+ */
+public record SalesReportRow(Long salesmanId, String salesmanEmail, Long carModelId, String carModelName, Long orderId,
+                             LocalDateTime createdAt, String customerEmail, String vinNumber, Double totalPrice) {
+}
@@ -0,0 +1,11 @@
+package com.ga.showroom.model.dto;
+
+/**
+ * Rolled-up sales of one salesman or car model
+ * @param id Long salesman or car model ID
+ * @param name String salesman email address or car model name
+ * @param orders Long number of orders
+ * @param revenue Double sum of order totals
+ */
+public record SalesTotals(Long id, String name, Long orders, Double revenue) {
+}
@@ -0,0 +1,14 @@
+package com.ga.showroom.model.enums;
+
+/**
+ * PENDING: Email is waiting in the outbox for its next delivery attempt
+ * SENDING: Email is claimed by a dispatcher until its lease runs out
+ * SENT: Email was handed to the mail server
+ * DEAD: Delivery failed too many times and will not be retried
+ */
+public enum EmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
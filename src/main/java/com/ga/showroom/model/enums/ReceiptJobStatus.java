@@ -0,0 +1,14 @@
+package com.ga.showroom.model.enums;
+
+/**
+ * QUEUED: Receipt job is waiting for a free receipt worker
+ * RENDERED: Receipt PDF was rendered and is being queued for email
+ * MAILED: Receipt email was queued in the email outbox for delivery
+ * FAILED: Receipt could not be rendered or queued, see the job's error
+ */
+public enum ReceiptJobStatus {
+    QUEUED,
+    RENDERED,
+    MAILED,
+    FAILED
+}
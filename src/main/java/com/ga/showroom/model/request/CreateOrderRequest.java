@@ -1,6 +1,7 @@
 package com.ga.showroom.model.request;
 
 import com.ga.showroom.model.Car;
+import com.ga.showroom.utility.Hashing;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,4 +14,16 @@ public class CreateOrderRequest {
     private Long modelId;
     private Long ownerId;
     private List<Long> options;
+
+    /**
+     * Hash of the request's fields, used to detect an Idempotency-Key reused for a different order
+     * @return String
+     */
+    public String fingerprint() {
+        return Hashing.sha256(String.join("|",
+                car == null ? "" : car.getVinNumber() + "|" + car.getRegistrationNumber() + "|" + car.getInsurancePolicy(),
+                String.valueOf(modelId),
+                String.valueOf(ownerId),
+                String.valueOf(options)));
+    }
 }
@@ -0,0 +1,20 @@
+package com.ga.showroom.model.request;
+
+import java.util.List;
+
+/**
+ * One order of a bulk import, a line of NDJSON or a CSV row
+ * @param vinNumber String
+ * @param registrationNumber String
+ * @param insurancePolicy String
+ * @param modelId Long ID of CarModel
+ * @param ownerId Long ID of User as owner
+ * @param options List of Option IDs
+ */
+public record ImportOrderRow(String vinNumber,
+                             String registrationNumber,
+                             String insurancePolicy,
+                             Long modelId,
+                             Long ownerId,
+                             List<Long> options) {
+}
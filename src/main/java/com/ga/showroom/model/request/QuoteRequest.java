@@ -0,0 +1,11 @@
+package com.ga.showroom.model.request;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class QuoteRequest {
+    private Long modelId;
+    private List<Long> options;
+}
@@ -0,0 +1,8 @@
+package com.ga.showroom.model.request;
+
+import lombok.Getter;
+
+@Getter
+public class RefreshTokenRequest {
+    private String refreshToken;
+}
@@ -0,0 +1,54 @@
+package com.ga.showroom.model.response;
+
+import com.ga.showroom.utility.Cursor;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list ordered newest first
+ * @param items List of T
+ * @param nextCursor String token for the next page, null on the last page
+ * @param <T> item type
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Clamp a requested page size to [1, MAX_PAGE_SIZE]
+     * @param limit Integer requested page size, null for the default
+     * @return int
+     */
+    public static int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Rows to fetch for a page: one more than the page size, to know whether a next page exists
+     * @param pageSize int
+     * @return Limit
+     */
+    public static Limit fetchLimit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    /**
+     * Build a page from rows fetched with fetchLimit
+     * @param rows List of T
+     * @param pageSize int
+     * @param createdAt Function reading a row's creation time
+     * @param id Function reading a row's ID
+     * @return CursorPage of T
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int pageSize, Function<T, LocalDateTime> createdAt, Function<T, Long> id) {
+        if (rows.size() <= pageSize) return new CursorPage<>(rows, null);
+
+        List<T> items = rows.subList(0, pageSize);
+        T last = items.get(pageSize - 1);
+        return new CursorPage<>(items, new Cursor(createdAt.apply(last), id.apply(last)).encode());
+    }
+}
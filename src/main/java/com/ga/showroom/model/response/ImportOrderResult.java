@@ -0,0 +1,21 @@
+package com.ga.showroom.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one bulk import row
+ * @param line long line number in the uploaded file
+ * @param status String CREATED or FAILED
+ * @param orderId Long ID of the created order
+ * @param error String reason the row was not imported
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportOrderResult(long line, String status, Long orderId, String error) {
+    public static ImportOrderResult created(long line, Long orderId) {
+        return new ImportOrderResult(line, "CREATED", orderId, null);
+    }
+
+    public static ImportOrderResult failed(long line, String error) {
+        return new ImportOrderResult(line, "FAILED", null, error);
+    }
+}
@@ -1,10 +1,17 @@
 package com.ga.showroom.model.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 @Getter
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class LoginResponse {
     private String message;
+    private String refreshToken;
+
+    public LoginResponse(String message) {
+        this(message, null);
+    }
 }
@@ -0,0 +1,12 @@
+package com.ga.showroom.model.response;
+
+import java.time.LocalDate;
+
+/**
+ * Order count and revenue of one day, week or month
+ * @param start LocalDate first day of the bucket
+ * @param orders long number of orders
+ * @param revenue double sum of order totals
+ */
+public record OrderBucket(LocalDate start, long orders, double revenue) {
+}
@@ -0,0 +1,19 @@
+package com.ga.showroom.model.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Price of a car model configuration
+ * @param carModelId Long
+ * @param basePrice Double car model's price
+ * @param options Map of option ID to price, for the requested options available on the model
+ * @param unavailableOptions List of requested option IDs that do not exist for the model
+ * @param totalPrice Double base price plus the available options' prices
+ */
+public record Quote(Long carModelId,
+                   Double basePrice,
+                   Map<Long, Double> options,
+                   List<Long> unavailableOptions,
+                   Double totalPrice) {
+}
@@ -0,0 +1,29 @@
+package com.ga.showroom.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ga.showroom.model.enums.ReceiptJobStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an order receipt job
+ * @param jobId String
+ * @param orderId Long
+ * @param status ReceiptJobStatus
+ * @param error String failure reason, null unless FAILED
+ * @param createdAt LocalDateTime
+ * @param updatedAt LocalDateTime
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReceiptJob(String jobId, Long orderId, ReceiptJobStatus status, String error,
+                         LocalDateTime createdAt, LocalDateTime updatedAt) {
+    /**
+     * Copy of this job moved to a new status
+     * @param status ReceiptJobStatus
+     * @param error String, null unless FAILED
+     * @return ReceiptJob
+     */
+    public ReceiptJob withStatus(ReceiptJobStatus status, String error) {
+        return new ReceiptJob(jobId, orderId, status, error, createdAt, LocalDateTime.now());
+    }
+}
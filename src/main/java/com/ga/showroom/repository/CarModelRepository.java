@@ -3,11 +3,17 @@ package com.ga.showroom.repository;
 import com.ga.showroom.model.Car;
 import com.ga.showroom.model.CarModel;
 import com.ga.showroom.model.Option;
+import com.ga.showroom.model.dto.ModelPrice;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.time.Year;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CarModelRepository extends JpaRepository<CarModel, Long> {
@@ -61,4 +67,29 @@ public interface CarModelRepository extends JpaRepository<CarModel, Long> {
      * @return List of Car
      */
     List<Car> findAllCarsById(Long carModelId);
+
+    /**
+     * Find the id and price of every car model
+     * @return List of ModelPrice
+     */
+    @Query("select new com.ga.showroom.model.dto.ModelPrice(m.id, m.price) from CarModel m")
+    List<ModelPrice> findAllModelPrices();
+
+    /**
+     * Find the id and price of a car model
+     * @param carModelId Long
+     * @return Optional of ModelPrice
+     */
+    @Query("select new com.ga.showroom.model.dto.ModelPrice(m.id, m.price) from CarModel m where m.id = :carModelId")
+    Optional<ModelPrice> findModelPriceById(@Param("carModelId") Long carModelId);
+
+    /**
+     * Seek a page of car models older than the cursor, newest first
+     * @param createdAt LocalDateTime of the cursor
+     * @param id Long of the cursor
+     * @param limit Limit page size + 1
+     * @return List of CarModel
+     */
+    @Query("select m from CarModel m where (m.createdAt, m.id) < (:createdAt, :id) order by m.createdAt desc, m.id desc")
+    List<CarModel> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
 }
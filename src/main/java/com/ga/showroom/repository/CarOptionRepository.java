@@ -1,9 +1,14 @@
 package com.ga.showroom.repository;
 
 import com.ga.showroom.model.CarOption;
+import com.ga.showroom.model.dto.ReceiptLine;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -44,4 +49,35 @@ public interface CarOptionRepository extends JpaRepository<CarOption, Long> {
      * @return List of CarOption
      */
     List<CarOption> findAllByOptionIdAndCarOwnerId(Long optionId, Long carOwnerId);
-}
\ No newline at end of file
+
+    /**
+     * Seek a page of car options older than the cursor, newest first
+     * @param createdAt LocalDateTime of the cursor
+     * @param id Long of the cursor
+     * @param limit Limit page size + 1
+     * @return List of CarOption
+     */
+    @Query("select co from CarOption co where (co.createdAt, co.id) < (:createdAt, :id) order by co.createdAt desc, co.id desc")
+    List<CarOption> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Seek a page of the car options of an owner's cars older than the cursor, newest first
+     * @param ownerId Long
+     * @param createdAt LocalDateTime of the cursor
+     * @param id Long of the cursor
+     * @param limit Limit page size + 1
+     * @return List of CarOption
+     */
+    @Query("select co from CarOption co where co.car.owner.id = :ownerId and (co.createdAt, co.id) < (:createdAt, :id) order by co.createdAt desc, co.id desc")
+    List<CarOption> findPageByCarOwnerId(@Param("ownerId") Long ownerId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Load the option lines of an order's receipt in one statement
+     * @param orderId Long
+     * @return List of ReceiptLine in the order the options were added
+     */
+    @Query("select new com.ga.showroom.model.dto.ReceiptLine(cat.name, opt.name, opt.price) " +
+            "from CarOption co join co.option opt left join opt.optionCategory cat " +
+            "where co.car.order.id = :orderId order by co.id")
+    List<ReceiptLine> findReceiptLines(@Param("orderId") Long orderId);
+}
@@ -1,10 +1,15 @@
 package com.ga.showroom.repository;
 
 import com.ga.showroom.model.Car;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.time.Year;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -72,4 +77,49 @@ public interface CarRepository extends JpaRepository<Car, Long> {
      * @return Boolean
      */
     Boolean existsByVinNumber(String vinNumber);
+
+    /**
+     * Find which of the given vin numbers are already registered
+     * @param vinNumbers Collection of String
+     * @return List of String
+     */
+    @Query("select c.vinNumber from Car c where c.vinNumber in :vinNumbers")
+    List<String> findExistingVinNumbers(@Param("vinNumbers") Collection<String> vinNumbers);
+
+    /**
+     * Find which of the given registration numbers are already registered
+     * @param registrationNumbers Collection of String
+     * @return List of String
+     */
+    @Query("select c.registrationNumber from Car c where c.registrationNumber in :registrationNumbers")
+    List<String> findExistingRegistrationNumbers(@Param("registrationNumbers") Collection<String> registrationNumbers);
+
+    /**
+     * Find which of the given insurance policies are already registered
+     * @param insurancePolicies Collection of String
+     * @return List of String
+     */
+    @Query("select c.insurancePolicy from Car c where c.insurancePolicy in :insurancePolicies")
+    List<String> findExistingInsurancePolicies(@Param("insurancePolicies") Collection<String> insurancePolicies);
+
+    /**
+     * Seek a page of cars older than the cursor, newest first
+     * @param createdAt LocalDateTime of the cursor
+     * @param id Long of the cursor
+     * @param limit Limit page size + 1
+     * @return List of Car
+     */
+    @Query("select c from Car c where (c.createdAt, c.id) < (:createdAt, :id) order by c.createdAt desc, c.id desc")
+    List<Car> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Seek a page of an owner's cars older than the cursor, newest first
+     * @param ownerId Long
+     * @param createdAt LocalDateTime of the cursor
+     * @param id Long of the cursor
+     * @param limit Limit page size + 1
+     * @return List of Car
+     */
+    @Query("select c from Car c where c.owner.id = :ownerId and (c.createdAt, c.id) < (:createdAt, :id) order by c.createdAt desc, c.id desc")
+    List<Car> findPageByOwnerId(@Param("ownerId") Long ownerId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
 }
@@ -0,0 +1,46 @@
+package com.ga.showroom.repository;
+
+import com.ga.showroom.model.EmailOutbox;
+import com.ga.showroom.model.enums.EmailStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    /**
+     * Lock a batch of emails that are due for delivery: pending emails whose retry time has come, and claimed emails
+     * whose dispatcher's lease ran out. Rows locked by another dispatcher are skipped.
+     * @param now LocalDateTime
+     * @param batchSize int
+     * @return List of EmailOutbox
+     */
+    @Query(value = "SELECT * FROM email_outbox WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at, id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    /**
+     * Count emails in a delivery status
+     * @param status EmailStatus
+     * @return long
+     */
+    long countByStatus(EmailStatus status);
+
+    /**
+     * Delete one batch of sent and dead emails last updated before the cutoff
+     * @param cutoff LocalDateTime
+     * @param batchSize int
+     * @return int number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM email_outbox WHERE id IN " +
+            "(SELECT id FROM email_outbox WHERE status IN ('SENT', 'DEAD') AND updated_at < :cutoff LIMIT :batchSize)", nativeQuery = true)
+    int deleteFinishedBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
@@ -2,9 +2,26 @@ package com.ga.showroom.repository;
 
 import com.ga.showroom.model.EmailVerificationToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface EmailVerificationTokenRepository extends JpaRepository<EmailVerificationToken, Long>{
     Optional<EmailVerificationToken> findByToken(String token);
+
+    /**
+     * Delete one batch of expired tokens
+     * @param now LocalDateTime
+     * @param batchSize int
+     * @return int number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM email_verification_token WHERE id IN " +
+            "(SELECT id FROM email_verification_token WHERE expiry_date < :now LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
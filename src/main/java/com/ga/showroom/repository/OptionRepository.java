@@ -1,9 +1,13 @@
 package com.ga.showroom.repository;
 
 import com.ga.showroom.model.Option;
+import com.ga.showroom.model.dto.OptionPrice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,4 +39,26 @@ public interface OptionRepository extends JpaRepository<Option, Long> {
      */
     Optional<Option> findByCarModelIdAndOptionCategoryIdAndId(Long carModelId, Long optionCategoryId, Long optionId);
 
+    /**
+     * Find the id, car model and price of several options in one query
+     * @param ids Collection of option IDs
+     * @return List<OptionPrice>
+     */
+    @Query("select new com.ga.showroom.model.dto.OptionPrice(o.id, o.carModel.id, o.price) from Option o where o.id in :ids")
+    List<OptionPrice> findOptionPricesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the id, car model and price of every option
+     * @return List<OptionPrice>
+     */
+    @Query("select new com.ga.showroom.model.dto.OptionPrice(o.id, o.carModel.id, o.price) from Option o")
+    List<OptionPrice> findAllOptionPrices();
+
+    /**
+     * Find the id, car model and price of a car model's options
+     * @param carModelId Long
+     * @return List<OptionPrice>
+     */
+    @Query("select new com.ga.showroom.model.dto.OptionPrice(o.id, o.carModel.id, o.price) from Option o where o.carModel.id = :carModelId")
+    List<OptionPrice> findOptionPricesByCarModelId(@Param("carModelId") Long carModelId);
 }
@@ -1,20 +1,35 @@
 package com.ga.showroom.repository;
 
 import com.ga.showroom.model.Order;
+import com.ga.showroom.model.dto.OrderBucketTotals;
+import com.ga.showroom.model.dto.OrderExportRow;
+import com.ga.showroom.model.dto.ReceiptVersion;
+import com.ga.showroom.model.dto.ReceiptView;
+import com.ga.showroom.model.dto.SalesReportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     /**
-     * Find all orders by their datetime.
-     * @param localDateTime LocalDateTime
-     * @return Order
+     * Find all orders created in the half-open range [start, end), e.g. one calendar day
+     * @param start LocalDateTime inclusive
+     * @param end LocalDateTime exclusive
+     * @return List of Order
      */
-    List<Order> findAllByCreatedAt(LocalDateTime localDateTime);
+    @Query("select o from Order o where o.createdAt >= :start and o.createdAt < :end order by o.createdAt, o.id")
+    List<Order> findAllByCreatedAtInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
     /**
      * Find all orders belonging to a customer
@@ -24,12 +39,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findAllByCustomerId(Long customerId);
 
     /**
-     * Find all of customer's orders on a specific date.
-     * @param localDateTime LocalDateTime
+     * Find all of a customer's orders created in the half-open range [start, end), e.g. one calendar day
+     * @param start LocalDateTime inclusive
+     * @param end LocalDateTime exclusive
      * @param customerId Long
      * @return List of Order
      */
-    List<Order> findAllByCreatedAtAndCustomerId(LocalDateTime localDateTime, Long customerId);
+    @Query("select o from Order o where o.customer.id = :customerId and o.createdAt >= :start and o.createdAt < :end order by o.createdAt, o.id")
+    List<Order> findAllByCreatedAtInRangeAndCustomerId(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                                       @Param("customerId") Long customerId);
 
     /**
      * Find all orders belonging to a salesman
@@ -54,4 +72,172 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @return List of Order
      */
     List<Order> findAllByCreatedAtBetweenAndCustomerId(LocalDateTime localDateTimeStart, LocalDateTime localDateTimeEnd,  Long customerId);
-}
\ No newline at end of file
+
+    /**
+     * Seek a page of orders older than the cursor, newest first
+     * @param createdAt LocalDateTime of the cursor
+     * @param id Long of the cursor
+     * @param limit Limit page size + 1
+     * @return List of Order
+     */
+    @Query("select o from Order o where (o.createdAt, o.id) < (:createdAt, :id) order by o.createdAt desc, o.id desc")
+    List<Order> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Seek a page of a customer's orders older than the cursor, newest first
+     * @param customerId Long
+     * @param createdAt LocalDateTime of the cursor
+     * @param id Long of the cursor
+     * @param limit Limit page size + 1
+     * @return List of Order
+     */
+    @Query("select o from Order o where o.customer.id = :customerId and (o.createdAt, o.id) < (:createdAt, :id) order by o.createdAt desc, o.id desc")
+    List<Order> findPageByCustomerId(@Param("customerId") Long customerId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Seek a page of orders created between two dates and older than the cursor, newest first
+     * @param start LocalDateTime
+     * @param end LocalDateTime
+     * @param createdAt LocalDateTime of the cursor
+     * @param id Long of the cursor
+     * @param limit Limit page size + 1
+     * @return List of Order
+     */
+    @Query("select o from Order o where o.createdAt between :start and :end and (o.createdAt, o.id) < (:createdAt, :id) order by o.createdAt desc, o.id desc")
+    List<Order> findPageByCreatedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Seek a page of a customer's orders created between two dates and older than the cursor, newest first
+     * @param start LocalDateTime
+     * @param end LocalDateTime
+     * @param customerId Long
+     * @param createdAt LocalDateTime of the cursor
+     * @param id Long of the cursor
+     * @param limit Limit page size + 1
+     * @return List of Order
+     */
+    @Query("select o from Order o where o.customer.id = :customerId and o.createdAt between :start and :end and (o.createdAt, o.id) < (:createdAt, :id) order by o.createdAt desc, o.id desc")
+    List<Order> findPageByCreatedAtBetweenAndCustomerId(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end, @Param("customerId") Long customerId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Stream orders created between two dates as flat export rows, oldest first. Rows are read through a
+     * forward-only cursor in fetch-size batches, so the caller must consume the stream inside a transaction and close it.
+     * @param start LocalDateTime
+     * @param end LocalDateTime
+     * @return Stream of OrderExportRow
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ga.showroom.model.dto.OrderExportRow(o.id, o.createdAt, o.totalPrice, cu.id, cu.emailAddress, " +
+            "s.id, s.emailAddress, c.id, c.vinNumber, c.registrationNumber, c.insurancePolicy, m.id, m.name) " +
+            "from Order o left join o.customer cu left join o.salesman s left join o.car c left join c.carModel m " +
+            "where o.createdAt between :start and :end order by o.createdAt, o.id")
+    Stream<OrderExportRow> streamExportRows(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Stream a customer's orders created between two dates as flat export rows, oldest first
+     * @param start LocalDateTime
+     * @param end LocalDateTime
+     * @param customerId Long
+     * @return Stream of OrderExportRow
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ga.showroom.model.dto.OrderExportRow(o.id, o.createdAt, o.totalPrice, cu.id, cu.emailAddress, " +
+            "s.id, s.emailAddress, c.id, c.vinNumber, c.registrationNumber, c.insurancePolicy, m.id, m.name) " +
+            "from Order o join o.customer cu left join o.salesman s left join o.car c left join c.carModel m " +
+            "where o.createdAt between :start and :end and cu.id = :customerId order by o.createdAt, o.id")
+    Stream<OrderExportRow> streamExportRowsByCustomerId(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                                        @Param("customerId") Long customerId);
+
+    /**
+     * Count and total the orders created in [start, end), grouped into day, week or month buckets by the database
+     * @param unit String date_trunc unit: day, week or month
+     * @param start LocalDateTime inclusive
+     * @param end LocalDateTime exclusive
+     * @return List of OrderBucketTotals, oldest bucket first
+     */
+    @Query(value = "select to_char(date_trunc(:unit, o.created_at), 'YYYY-MM-DD') as bucket, count(*) as orders, " +
+            "coalesce(sum(o.total_price), 0) as revenue from orders o " +
+            "where o.created_at >= :start and o.created_at < :end group by 1 order by 1", nativeQuery = true)
+    List<OrderBucketTotals> sumByBucket(@Param("unit") String unit, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Count and total a customer's orders created in [start, end), grouped into day, week or month buckets
+     * @param unit String date_trunc unit: day, week or month
+     * @param start LocalDateTime inclusive
+     * @param end LocalDateTime exclusive
+     * @param customerId Long
+     * @return List of OrderBucketTotals, oldest bucket first
+     */
+    @Query(value = "select to_char(date_trunc(:unit, o.created_at), 'YYYY-MM-DD') as bucket, count(*) as orders, " +
+            "coalesce(sum(o.total_price), 0) as revenue from orders o " +
+            "where o.customer_id = :customerId and o.created_at >= :start and o.created_at < :end group by 1 order by 1", nativeQuery = true)
+    List<OrderBucketTotals> sumByBucketAndCustomerId(@Param("unit") String unit, @Param("start") LocalDateTime start,
+                                                     @Param("end") LocalDateTime end, @Param("customerId") Long customerId);
+
+    /**
+     * Count and total a salesman's orders created in [start, end), grouped into day, week or month buckets
+     * @param unit String date_trunc unit: day, week or month
+     * @param start LocalDateTime inclusive
+     * @param end LocalDateTime exclusive
+     * @param salesmanId Long
+     * @return List of OrderBucketTotals, oldest bucket first
+     */
+    @Query(value = "select to_char(date_trunc(:unit, o.created_at), 'YYYY-MM-DD') as bucket, count(*) as orders, " +
+            "coalesce(sum(o.total_price), 0) as revenue from orders o " +
+            "where o.salesman_id = :salesmanId and o.created_at >= :start and o.created_at < :end group by 1 order by 1", nativeQuery = true)
+    List<OrderBucketTotals> sumByBucketAndSalesmanId(@Param("unit") String unit, @Param("start") LocalDateTime start,
+                                                     @Param("end") LocalDateTime end, @Param("salesmanId") Long salesmanId);
+
+    /**
+     * Find the timestamps that version an order's receipt, across the order, customer profile, car, car model and
+     * options, without loading any of them
+     * @param orderId Long
+     * @return Optional of ReceiptVersion
+     */
+    @Query("select new com.ga.showroom.model.dto.ReceiptVersion(o.id, cu.id, o.createdAt, o.updatedAt, c.updatedAt, m.updatedAt, p.updatedAt, " +
+            "(select max(greatest(co.updatedAt, opt.updatedAt, coalesce(cat.updatedAt, opt.updatedAt))) " +
+            "from CarOption co join co.option opt left join opt.optionCategory cat where co.car = c), " +
+            "(select count(co) from CarOption co where co.car = c)) " +
+            "from Order o left join o.customer cu left join cu.userProfile p left join o.car c left join c.carModel m " +
+            "where o.id = :orderId")
+    Optional<ReceiptVersion> findReceiptVersion(@Param("orderId") Long orderId);
+
+    /**
+     * Load an order's receipt fields in one statement, without its option lines
+     * @param orderId Long
+     * @return Optional of ReceiptView
+     */
+    @Query("select new com.ga.showroom.model.dto.ReceiptView(o.id, cu.id, o.createdAt, o.updatedAt, o.totalPrice, " +
+            "p.firstName, p.lastName, cu.emailAddress, p.phoneNumber, p.homeAddress, p.cpr, " +
+            "m.name, m.makeYear, m.manufacturer, m.price, c.vinNumber, c.registrationNumber, c.insurancePolicy) " +
+            "from Order o left join o.customer cu left join cu.userProfile p left join o.car c left join c.carModel m " +
+            "where o.id = :orderId")
+    Optional<ReceiptView> findReceiptView(@Param("orderId") Long orderId);
+
+    /**
+     * Stream the sales report rows of orders created in [start, end), grouped by salesman then car model.
+     * Orders without a salesman or car are left out. Must be consumed inside a transaction.
+     * @param start LocalDateTime inclusive
+     * @param end LocalDateTime exclusive
+     * @return Stream of SalesReportRow
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ga.showroom.model.dto.SalesReportRow(s.id, s.emailAddress, m.id, m.name, o.id, o.createdAt, " +
+            "cu.emailAddress, c.vinNumber, o.totalPrice) " +
+            "from Order o join o.salesman s join o.car c join c.carModel m left join o.customer cu " +
+            "where o.createdAt >= :start and o.createdAt < :end " +
+            "order by s.id, m.id, o.id")
+    Stream<SalesReportRow> streamSalesReportRows(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Seek the next page of IDs of orders created in [start, end), in ID order
+     * @param start LocalDateTime inclusive
+     * @param end LocalDateTime exclusive
+     * @param afterId Long last ID of the previous page, 0 for the first page
+     * @param limit Limit page size
+     * @return List of order IDs
+     */
+    @Query("select o.id from Order o where o.createdAt >= :start and o.createdAt < :end and o.id > :afterId order by o.id")
+    List<Long> findIdPageByCreatedAtInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                            @Param("afterId") Long afterId, Limit limit);
+}
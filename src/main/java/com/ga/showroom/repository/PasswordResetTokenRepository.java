@@ -3,10 +3,27 @@ package com.ga.showroom.repository;
 import com.ga.showroom.model.PasswordResetToken;
 import com.ga.showroom.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     Optional<PasswordResetToken> findByToken(String token);
     void deleteByUser(User user);
-}
\ No newline at end of file
+
+    /**
+     * Delete one batch of expired tokens
+     * @param now LocalDateTime
+     * @param batchSize int
+     * @return int number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM password_reset_token WHERE id IN " +
+            "(SELECT id FROM password_reset_token WHERE expiry_date < :now LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
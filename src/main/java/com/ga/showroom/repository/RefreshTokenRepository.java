@@ -0,0 +1,57 @@
+package com.ga.showroom.repository;
+
+import com.ga.showroom.model.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    /**
+     * Find and lock a refresh token by its hash, so concurrent rotations of the same token are serialized
+     * @param tokenHash String
+     * @return Optional of RefreshToken
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Revoke every token in a rotation family
+     * @param familyId String
+     * @return int number of revoked tokens
+     */
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken r set r.revoked = true where r.familyId = :familyId and r.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * Revoke every refresh token of a user
+     * @param userId Long
+     * @return int number of revoked tokens
+     */
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken r set r.revoked = true where r.user.id = :userId and r.revoked = false")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * Delete one batch of expired refresh tokens
+     * @param now LocalDateTime
+     * @param batchSize int
+     * @return int number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN " +
+            "(SELECT id FROM refresh_tokens WHERE expires_at < :now LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
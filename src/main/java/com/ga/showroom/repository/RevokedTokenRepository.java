@@ -0,0 +1,32 @@
+package com.ga.showroom.repository;
+
+import com.ga.showroom.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    /**
+     * Find all revocations that still cover unexpired tokens
+     * @param now LocalDateTime
+     * @return List of RevokedToken
+     */
+    List<RevokedToken> findAllByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * Delete revocations whose tokens have all expired
+     * @param now LocalDateTime
+     * @return int number of deleted rows
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,107 @@
+package com.ga.showroom.repository;
+
+import com.ga.showroom.model.SalesRollup;
+import com.ga.showroom.model.SalesRollupId;
+import com.ga.showroom.model.dto.DailySales;
+import com.ga.showroom.model.dto.SalesTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollupId> {
+    /**
+     * Add orders to their day, salesman and car model rollups, creating missing rollup rows.
+     * Must run in the transaction that inserted the orders, after they are flushed.
+     * @param orderIds Collection of order IDs not yet rolled up
+     * @return int number of rollup rows inserted or updated
+     */
+    @Modifying
+    @Query(value = "insert into sales_rollups (day, salesman_id, car_model_id, order_count, revenue) " +
+            "select cast(o.created_at as date), o.salesman_id, c.car_model_id, count(*), coalesce(sum(o.total_price), 0) " +
+            "from orders o join cars c on c.order_id = o.id " +
+            "where o.id in (:orderIds) and o.salesman_id is not null and c.car_model_id is not null " +
+            "group by cast(o.created_at as date), o.salesman_id, c.car_model_id " +
+            "on conflict (day, salesman_id, car_model_id) do update " +
+            "set order_count = sales_rollups.order_count + excluded.order_count, revenue = sales_rollups.revenue + excluded.revenue",
+            nativeQuery = true)
+    int addOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Block incremental rollup updates until the current transaction ends
+     */
+    @Modifying
+    @Query(value = "lock table sales_rollups in exclusive mode", nativeQuery = true)
+    void lockTable();
+
+    /**
+     * Delete every rollup row
+     * @return int number of rows deleted
+     */
+    @Modifying
+    @Query(value = "delete from sales_rollups", nativeQuery = true)
+    int deleteAllRows();
+
+    /**
+     * Recompute every rollup row from the orders table
+     * @return int number of rollup rows inserted
+     */
+    @Modifying
+    @Query(value = "insert into sales_rollups (day, salesman_id, car_model_id, order_count, revenue) " +
+            "select cast(o.created_at as date), o.salesman_id, c.car_model_id, count(*), coalesce(sum(o.total_price), 0) " +
+            "from orders o join cars c on c.order_id = o.id " +
+            "where o.salesman_id is not null and c.car_model_id is not null " +
+            "group by cast(o.created_at as date), o.salesman_id, c.car_model_id",
+            nativeQuery = true)
+    int insertFromOrders();
+
+    /**
+     * Sum the rollups between two days per salesman, highest revenue first
+     * @param start LocalDate inclusive
+     * @param end LocalDate inclusive
+     * @return List of SalesTotals
+     */
+    @Query("select new com.ga.showroom.model.dto.SalesTotals(r.id.salesmanId, u.emailAddress, sum(r.orderCount), sum(r.revenue)) " +
+            "from SalesRollup r left join User u on u.id = r.id.salesmanId " +
+            "where r.id.day between :start and :end group by r.id.salesmanId, u.emailAddress order by sum(r.revenue) desc")
+    List<SalesTotals> sumBySalesman(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Sum the rollups between two days per car model, highest revenue first
+     * @param start LocalDate inclusive
+     * @param end LocalDate inclusive
+     * @return List of SalesTotals
+     */
+    @Query("select new com.ga.showroom.model.dto.SalesTotals(r.id.carModelId, m.name, sum(r.orderCount), sum(r.revenue)) " +
+            "from SalesRollup r left join CarModel m on m.id = r.id.carModelId " +
+            "where r.id.day between :start and :end group by r.id.carModelId, m.name order by sum(r.revenue) desc")
+    List<SalesTotals> sumByCarModel(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Sum the rollups between two days per day, oldest first
+     * @param start LocalDate inclusive
+     * @param end LocalDate inclusive
+     * @return List of DailySales
+     */
+    @Query("select new com.ga.showroom.model.dto.DailySales(r.id.day, sum(r.orderCount), sum(r.revenue)) " +
+            "from SalesRollup r where r.id.day between :start and :end group by r.id.day order by r.id.day")
+    List<DailySales> sumByDay(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Sum one salesman's rollups between two days per day, oldest first
+     * @param start LocalDate inclusive
+     * @param end LocalDate inclusive
+     * @param salesmanId Long
+     * @return List of DailySales
+     */
+    @Query("select new com.ga.showroom.model.dto.DailySales(r.id.day, sum(r.orderCount), sum(r.revenue)) " +
+            "from SalesRollup r where r.id.salesmanId = :salesmanId and r.id.day between :start and :end " +
+            "group by r.id.day order by r.id.day")
+    List<DailySales> sumByDayAndSalesmanId(@Param("start") LocalDate start, @Param("end") LocalDate end, @Param("salesmanId") Long salesmanId);
+}
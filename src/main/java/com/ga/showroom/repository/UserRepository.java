@@ -2,11 +2,24 @@ package com.ga.showroom.repository;
 
 import com.ga.showroom.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmailAddress(String userEmailAddress);
     User findUserByEmailAddress(String userEmailAddress);
     boolean existsByUserProfileCpr(Long cpr);
+
+    /**
+     * Find which of the given user IDs exist
+     * @param ids Collection of Long
+     * @return List of Long
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
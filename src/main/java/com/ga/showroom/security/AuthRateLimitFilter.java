@@ -0,0 +1,49 @@
+package com.ga.showroom.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Rejects login, register and forgot password attempts from a client IP that has used up its attempts,
+ * before any password hashing, database lookup or email is done.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    private static final Set<String> LIMITED_PATHS = Set.of(
+            "/auth/users/login",
+            "/auth/users/register",
+            "/auth/users/forgot-password");
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !LIMITED_PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long retryAfter = authRateLimiter.tryAcquireForIp(request.getRemoteAddr());
+
+        if (retryAfter > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.getWriter().write("Too many attempts. Please try again later.");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
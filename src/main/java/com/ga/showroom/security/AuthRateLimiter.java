@@ -0,0 +1,168 @@
+package com.ga.showroom.security;
+
+import com.ga.showroom.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock-striped token bucket limiter for the login, register and forgot password endpoints, keyed by
+ * client IP and by email address. Buckets live in a fixed table of stripes and slots, so memory never
+ * grows with the number of clients: an idle (fully refilled) slot is reused when a new key arrives, and
+ * when a stripe has no idle slot the new key is rejected rather than resetting a throttled key's bucket.
+ */
+@Component
+public class AuthRateLimiter {
+    private final Stripe[] stripes;
+    private final double ipCapacity;
+    private final double ipRefillPerNano;
+    private final double emailCapacity;
+    private final double emailRefillPerNano;
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByEmail = new LongAdder();
+
+    public AuthRateLimiter(@Value("${rate-limit-stripes:64}") int stripeCount,
+                           @Value("${rate-limit-slots-per-stripe:128}") int slotsPerStripe,
+                           @Value("${rate-limit-ip-capacity:20}") int ipCapacity,
+                           @Value("${rate-limit-ip-refill-per-minute:20}") int ipRefillPerMinute,
+                           @Value("${rate-limit-email-capacity:5}") int emailCapacity,
+                           @Value("${rate-limit-email-refill-per-minute:5}") int emailRefillPerMinute) {
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount))];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new Stripe(slotsPerStripe);
+
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerNano = ipRefillPerMinute / 60_000_000_000d;
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerNano = emailRefillPerMinute / 60_000_000_000d;
+    }
+
+    /**
+     * Take one attempt from a client IP's bucket
+     * @param clientIp String
+     * @return long 0 if allowed, otherwise seconds until the next attempt is allowed
+     */
+    public long tryAcquireForIp(String clientIp) {
+        long retryAfter = tryAcquire("ip:" + clientIp, ipCapacity, ipRefillPerNano);
+        if (retryAfter > 0) rejectedByIp.increment();
+        return retryAfter;
+    }
+
+    /**
+     * Take one attempt from an email address's bucket, rejecting when it is empty
+     * @param emailAddress String
+     * @throws TooManyRequestsException when the email has no attempts left
+     */
+    public void acquireForEmail(String emailAddress) {
+        if (emailAddress == null) return;
+
+        long retryAfter = tryAcquire("email:" + emailAddress.trim().toLowerCase(Locale.ROOT), emailCapacity, emailRefillPerNano);
+        if (retryAfter > 0) {
+            rejectedByEmail.increment();
+            throw new TooManyRequestsException("Too many attempts for this account. Please try again later.", retryAfter);
+        }
+    }
+
+    /**
+     * Rejected attempt counters
+     * @return Map of counter name to value
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rejectedByIp", rejectedByIp.sum());
+        stats.put("rejectedByEmail", rejectedByEmail.sum());
+        return stats;
+    }
+
+    private long tryAcquire(String key, double capacity, double refillPerNano) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        Stripe stripe = stripes[hash & (stripes.length - 1)];
+        return stripe.tryAcquire(key, capacity, refillPerNano, System.nanoTime());
+    }
+
+    /**
+     * One lock and a fixed number of bucket slots. Each slot keeps its own key's capacity and refill rate,
+     * so a slot is only judged idle by the bucket it actually holds.
+     */
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final String[] keys;
+        private final double[] tokens;
+        private final double[] capacities;
+        private final double[] refillsPerNano;
+        private final long[] lastRefill;
+
+        Stripe(int slots) {
+            this.keys = new String[slots];
+            this.tokens = new double[slots];
+            this.capacities = new double[slots];
+            this.refillsPerNano = new double[slots];
+            this.lastRefill = new long[slots];
+        }
+
+        long tryAcquire(String key, double capacity, double refillPerNano, long now) {
+            lock.lock();
+            try {
+                int slot = findSlot(key, now);
+                if (slot < 0) return secondsUntilIdleSlot(now); // every slot holds a throttled key, never evict one
+
+                if (keys[slot] == null || !keys[slot].equals(key)) { // new or reused slot starts full
+                    keys[slot] = key;
+                    tokens[slot] = capacity;
+                    capacities[slot] = capacity;
+                    refillsPerNano[slot] = refillPerNano;
+                } else {
+                    tokens[slot] = Math.min(capacity, tokens[slot] + (now - lastRefill[slot]) * refillPerNano);
+                }
+                lastRefill[slot] = now;
+
+                if (tokens[slot] >= 1) {
+                    tokens[slot] -= 1;
+                    return 0;
+                }
+                return Math.max(1, (long) Math.ceil((1 - tokens[slot]) / refillPerNano / 1_000_000_000d));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Find the key's slot, else the first empty slot or slot whose own bucket has fully refilled
+         * @return int slot index, or -1 if every slot holds a partly drained bucket
+         */
+        private int findSlot(String key, long now) {
+            int reusable = -1;
+
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == null) {
+                    if (reusable < 0) reusable = i;
+                    continue;
+                }
+                if (keys[i].equals(key)) return i;
+
+                if (reusable < 0 && refilled(i, now) >= capacities[i]) reusable = i;
+            }
+            return reusable;
+        }
+
+        /**
+         * Seconds until the first slot's bucket is full again and the slot can be reused
+         */
+        private long secondsUntilIdleSlot(long now) {
+            double minNanos = Double.MAX_VALUE;
+            for (int i = 0; i < keys.length; i++) {
+                minNanos = Math.min(minNanos, (capacities[i] - refilled(i, now)) / refillsPerNano[i]);
+            }
+            return Math.max(1, (long) Math.ceil(minNanos / 1_000_000_000d));
+        }
+
+        private double refilled(int slot, long now) {
+            return tokens[slot] + (now - lastRefill[slot]) * refillsPerNano[slot];
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ga.showroom.security;
+
+import com.ga.showroom.model.User;
+import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.enums.UserStatus;
+import lombok.Getter;
+
+/**
+ * Authenticated user of the current request with its authorization flags resolved once,
+ * when the principal is built, so every policy check is a field read.
+ */
+@Getter
+public final class CurrentUser {
+    private final Long id;
+    private final String emailAddress;
+    private final Role role;
+    private final boolean admin;
+    private final boolean salesman;
+    private final boolean customer;
+    private final boolean staff;
+    private final boolean active;
+    private final boolean verified;
+
+    private CurrentUser(User user) {
+        this.id = user.getId();
+        this.emailAddress = user.getEmailAddress();
+        this.role = user.getRole();
+        this.admin = role == Role.ADMIN;
+        this.salesman = role == Role.SALESMAN;
+        this.customer = role == Role.CUSTOMER;
+        this.staff = admin || salesman;
+        this.active = user.getUserStatus() != UserStatus.INACTIVE;
+        this.verified = Boolean.TRUE.equals(user.getVerified());
+    }
+
+    /**
+     * Resolve the authorization flags of a user
+     * @param user User
+     * @return CurrentUser
+     */
+    public static CurrentUser of(User user) {
+        return new CurrentUser(user);
+    }
+
+    /**
+     * Customers may only view data they own, salesmen and admins may view everything
+     * @param ownerId Long id of the user owning the data
+     * @return boolean
+     */
+    public boolean canView(Long ownerId) {
+        return !customer || id.equals(ownerId);
+    }
+
+    /**
+     * Customers may only view data they own, salesmen and admins may view everything
+     * @param owner User owning the data, may be null
+     * @return boolean
+     */
+    public boolean canView(User owner) {
+        return !customer || (owner != null && id.equals(owner.getId()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.ga.showroom.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,7 +20,17 @@ public class JWTRequestFilter extends OncePerRequestFilter {
     @Autowired
     private MyUserDetailsService myUserDetailsService;
     @Autowired
-    private JWTUtils jwtUtils;
+    private JwtVerifier jwtVerifier;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    /**
+     * true: build the principal from the token's signed claims (no DB round trip).
+     * false: load the user from the database on every request.
+     */
+    @Value("${jwt-claims-principal:true}")
+    private boolean claimsPrincipal;
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
@@ -33,12 +44,9 @@ public class JWTRequestFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            System.out.println("jwt: ==> " + jwt);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                System.out.println("username: ==> " + username);
-                UserDetails userDetails = this.myUserDetailsService.loadUserByUsername(username);
-                System.out.println("userDetails: ==> " + userDetails.getUsername());
+            VerifiedToken token = jwt == null ? null : jwtVerifier.verify(jwt);
+            if (token != null && !tokenRevocationService.isRevoked(token)) {
+                UserDetails userDetails = loadUserDetails(token);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -49,4 +57,19 @@ public class JWTRequestFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Resolve the user details of a verified token. Falls back to the database lookup when claims mode is off
+     * or the token was issued without user claims.
+     * @param token VerifiedToken
+     * @return UserDetails
+     */
+    private UserDetails loadUserDetails(VerifiedToken token) {
+        if (claimsPrincipal) {
+            MyUserDetails userDetails = MyUserDetails.fromVerifiedToken(token);
+            if (userDetails != null) return userDetails;
+        }
+
+        return this.myUserDetailsService.loadUserByUsername(token.subject());
+    }
 }
@@ -1,14 +1,27 @@
 package com.ga.showroom.security;
 
-import io.jsonwebtoken.*;
+import com.ga.showroom.model.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.Date;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.UUID;
+
 @Service
 public class JWTUtils {
-    Logger logger = Logger.getLogger(JWTUtils.class.getName());
+    /**
+     * Claim names carried by every issued token, so the request filter can build the principal without a DB lookup
+     */
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS = "status";
+    public static final String CLAIM_VERIFIED = "verified";
+    /**
+     * Issue time in epoch milliseconds. The standard iat claim only has second precision, which cannot tell a login
+     * from a revocation of all the user's tokens in the same second.
+     */
+    public static final String CLAIM_ISSUED_AT_MS = "iat_ms";
 
     @Value("${jwt-secret}")
     private String jwtSecret;
@@ -16,34 +29,19 @@ public class JWTUtils {
     private int jwtExpirationMs;
 
     public String generateJwtToken(MyUserDetails myUserDetails) {
-        System.out.println("jwtSecret :::"+jwtSecret);
-        System.out.println("jwtExpirationMs" +jwtExpirationMs);
-        System.out.println("myUserDetails ::"+myUserDetails.getUsername());
+        User user = myUserDetails.getUser();
+        Date issuedAt = new Date();
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject((myUserDetails.getUsername()))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_STATUS, user.getUserStatus().name())
+                .claim(CLAIM_VERIFIED, user.getVerified())
+                .claim(CLAIM_ISSUED_AT_MS, issuedAt.getTime())
+                .setIssuedAt(issuedAt)
+                .setExpiration(new Date(issuedAt.getTime() + jwtExpirationMs))
                 .signWith(SignatureAlgorithm.HS256, jwtSecret)
                 .compact();
     }
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(jwtSecret).build().parseClaimsJws(token).getBody().getSubject();
-    }
-    public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-            return true;
-        } catch (SecurityException e) {
-            logger.log(Level.SEVERE, "Invalid JWT signature: {0}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            logger.log(Level.SEVERE, "Invalid JWT token: {0}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            logger.log(Level.SEVERE, "JWT token is expired: {0}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            logger.log(Level.SEVERE, "JWT token is unsupported: {0}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            logger.log(Level.SEVERE, "JWT claims string is empty: {0}", e.getMessage());
-        }
-        return false;
-    }
-}
\ No newline at end of file
+}
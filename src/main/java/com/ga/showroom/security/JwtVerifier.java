@@ -0,0 +1,93 @@
+package com.ga.showroom.security;
+
+import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.enums.UserStatus;
+import com.ga.showroom.utility.BoundedCache;
+import com.ga.showroom.utility.CacheStats;
+import com.ga.showroom.utility.Hashing;
+import io.jsonwebtoken.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Verifies a JWT once per request with a reusable parser, and caches verified tokens by hash until they expire.
+ */
+@Service
+public class JwtVerifier {
+    Logger logger = Logger.getLogger(JwtVerifier.class.getName());
+
+    private final JwtParser jwtParser;
+    private final BoundedCache<String, VerifiedToken> verifiedTokens;
+
+    public JwtVerifier(@Value("${jwt-secret}") String jwtSecret,
+                       @Value("${jwt-expiration-ms}") int jwtExpirationMs,
+                       @Value("${jwt-cache-max-entries:10000}") int maxEntries) {
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(jwtSecret).build();
+        this.verifiedTokens = new BoundedCache<>(maxEntries, Duration.ofMillis(jwtExpirationMs));
+    }
+
+    /**
+     * Verify a token's signature and expiry and decode its claims, reusing a previous verification when cached.
+     * @param token String compact JWT
+     * @return VerifiedToken, or null if the token is invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        String key = Hashing.sha256(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) return cached;
+
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            VerifiedToken verified = toVerifiedToken(claims);
+
+            verifiedTokens.put(key, verified, verified.expiration().toEpochMilli());
+            return verified;
+        } catch (ExpiredJwtException e) {
+            logger.log(Level.SEVERE, "JWT token is expired: {0}", e.getMessage());
+        } catch (MalformedJwtException e) {
+            logger.log(Level.SEVERE, "Invalid JWT token: {0}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            logger.log(Level.SEVERE, "JWT token is unsupported: {0}", e.getMessage());
+        } catch (JwtException e) {
+            logger.log(Level.SEVERE, "Invalid JWT signature: {0}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "JWT claims string is empty: {0}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Verified token cache counters
+     * @return CacheStats
+     */
+    public CacheStats getCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    /**
+     * Map parsed claims to their typed form
+     * @param claims Claims
+     * @return VerifiedToken
+     */
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Object userId = claims.get(JWTUtils.CLAIM_USER_ID);
+        Object role = claims.get(JWTUtils.CLAIM_ROLE);
+        Object status = claims.get(JWTUtils.CLAIM_STATUS);
+        Object issuedAtMs = claims.get(JWTUtils.CLAIM_ISSUED_AT_MS);
+
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                userId == null ? null : ((Number) userId).longValue(),
+                role == null ? null : Role.valueOf(role.toString()),
+                status == null ? null : UserStatus.valueOf(status.toString()),
+                Boolean.TRUE.equals(claims.get(JWTUtils.CLAIM_VERIFIED)),
+                issuedAtMs == null ? claims.getIssuedAt().toInstant() : Instant.ofEpochMilli(((Number) issuedAtMs).longValue()),
+                claims.getExpiration().toInstant());
+    }
+}
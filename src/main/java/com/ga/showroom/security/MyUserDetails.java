@@ -11,8 +11,30 @@ import java.util.HashSet;
 @Getter
 public class MyUserDetails implements UserDetails {
     private User user;
+    private final CurrentUser currentUser;
+
     public MyUserDetails(User user) {
         this.user = user;
+        this.currentUser = CurrentUser.of(user);
+    }
+
+    /**
+     * Build user details from a verified token's claims only, without a database lookup.
+     * The resulting user carries id, email, role, status and verified flag; password and profile are not loaded.
+     * @param token VerifiedToken
+     * @return MyUserDetails, or null if the token was issued without the user claims
+     */
+    public static MyUserDetails fromVerifiedToken(VerifiedToken token) {
+        if (!token.hasUserClaims()) return null; // token issued before claims were added
+
+        User user = new User();
+        user.setId(token.userId());
+        user.setEmailAddress(token.subject());
+        user.setRole(token.role());
+        user.setUserStatus(token.userStatus());
+        user.setVerified(token.verified());
+
+        return new MyUserDetails(user);
     }
 
     @Override
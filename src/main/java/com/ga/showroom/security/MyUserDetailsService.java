@@ -1,16 +1,30 @@
 package com.ga.showroom.security;
 
+import com.ga.showroom.event.UserChangedEvent;
 import com.ga.showroom.model.User;
 import com.ga.showroom.service.UserService;
+import com.ga.showroom.utility.BoundedCache;
+import com.ga.showroom.utility.CacheStats;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private UserService userService;
+    private final BoundedCache<String, MyUserDetails> principalCache;
+
+    public MyUserDetailsService(@Value("${principal-cache-max-entries:1000}") int maxEntries,
+                                @Value("${principal-cache-ttl-seconds:300}") long ttlSeconds) {
+        this.principalCache = new BoundedCache<>(maxEntries, Duration.ofSeconds(ttlSeconds));
+    }
 
     @Autowired
     public void setUserService(UserService userService) {
@@ -19,8 +33,46 @@ public class MyUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        MyUserDetails cached = principalCache.get(email);
+        if (cached != null) return cached;
+
         User user = userService.findUserByEmailAddress(email);
-        return new MyUserDetails(user);
+        if (user == null) throw new UsernameNotFoundException("User with email address " + email + " not found");
+
+        MyUserDetails userDetails = new MyUserDetails(user);
+        principalCache.put(email, userDetails);
+        return userDetails;
+    }
+
+    /**
+     * Store a password rehashed at the configured BCrypt strength. Called by Spring Security after a
+     * successful login whose stored hash cost differs from the target.
+     * @param user UserDetails the authenticated user
+     * @param newPassword String the new encoded password
+     * @return UserDetails with the updated password
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User updatedUser = userService.updateEncodedPassword(user.getUsername(), newPassword);
+        principalCache.invalidate(user.getUsername());
+        return new MyUserDetails(updatedUser);
+    }
+
+    /**
+     * Drop a changed user's cached details so the change applies on their next request
+     * @param event UserChangedEvent
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        principalCache.invalidate(event.emailAddress());
+    }
+
+    /**
+     * Principal cache counters
+     * @return CacheStats
+     */
+    public CacheStats getCacheStats() {
+        return principalCache.stats();
     }
 
 }
@@ -1,7 +1,9 @@
 package com.ga.showroom.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,8 +11,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -20,20 +20,29 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfiguration {
 
     private MyUserDetailsService userDetailsService;
+    private AuthRateLimitFilter authRateLimitFilter;
 
     @Autowired
     public void setUserDetailsService(MyUserDetailsService userDetailsService) {
         this.userDetailsService = userDetailsService;
     }
 
+    @Autowired
+    public void setAuthRateLimitFilter(AuthRateLimitFilter authRateLimitFilter) {
+        this.authRateLimitFilter = authRateLimitFilter;
+    }
+
     @Bean
     public JWTRequestFilter authenticationJwtTokenFilter() {
         return new JWTRequestFilter();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public PooledPasswordEncoder passwordEncoder(@Value("${bcrypt-strength:10}") int strength,
+                                                 @Value("${password-hashing-threads:0}") int threads,
+                                                 @Value("${password-hashing-queue-capacity:100}") int queueCapacity,
+                                                 @Value("${password-hashing-retry-after-seconds:2}") long retryAfterSeconds) {
+        return new PooledPasswordEncoder(strength, threads, queueCapacity, retryAfterSeconds);
     }
 
     @Bean
@@ -43,15 +52,19 @@ public class SecurityConfiguration {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // streamed responses finish on an async dispatch, the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/auth/users",
                                 "/auth/users/login",
                                 "/auth/users/register",
+                                "/auth/users/refresh",
                                 "/auth/users/forgot-password",
                                 "/auth/users/reset-password",
                                 "/auth/users/verify",
                                 "/error"
                         ).permitAll().anyRequest().authenticated());
+        http.addFilterBefore(authRateLimitFilter, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
@@ -0,0 +1,180 @@
+package com.ga.showroom.security;
+
+import com.ga.showroom.model.RevokedToken;
+import com.ga.showroom.repository.RevokedTokenRepository;
+import com.ga.showroom.utility.BloomFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revocation list for stateless access tokens. A Bloom filter answers most checks ("never revoked")
+ * in constant time without touching the exact sets; only possible matches are confirmed against them.
+ * Both are rebuilt from the revoked_tokens table at startup and periodically, dropping expired entries.
+ */
+@Service
+public class TokenRevocationService {
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long jwtExpirationMs;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter bloomFilter;
+    private volatile Map<String, Instant> revokedTokenIds = new ConcurrentHashMap<>();
+    private volatile Map<Long, Instant> revokedUsers = new ConcurrentHashMap<>();
+    private final LongAdder bloomPositives = new LongAdder();
+    private final LongAdder confirmedRevocations = new LongAdder();
+
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${jwt-expiration-ms}") long jwtExpirationMs,
+                                  @Value("${revocation-expected-entries:100000}") int expectedRevocations,
+                                  @Value("${revocation-false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    /**
+     * Check whether a verified token has been revoked, by its own ID or by a user-wide revocation
+     * @param token VerifiedToken
+     * @return boolean
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        BloomFilter filter = bloomFilter;
+
+        if (token.tokenId() != null && filter.mightContain(tokenKey(token.tokenId()))) {
+            bloomPositives.increment();
+            if (revokedTokenIds.containsKey(token.tokenId())) {
+                confirmedRevocations.increment();
+                return true;
+            }
+        }
+
+        if (token.userId() != null && filter.mightContain(userKey(token.userId()))) {
+            bloomPositives.increment();
+            Instant revokedBefore = revokedUsers.get(token.userId());
+            if (revokedBefore != null && !token.issuedAt().isAfter(revokedBefore)) { // both have millisecond precision
+                confirmedRevocations.increment();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Revoke a single access token, e.g. on logout
+     * @param token VerifiedToken
+     */
+    public synchronized void revokeToken(VerifiedToken token) {
+        if (token.tokenId() == null) { // token issued without an ID, fall back to revoking its user's tokens
+            if (token.userId() != null) revokeAllForUser(token.userId());
+            return;
+        }
+
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId(token.tokenId());
+        revokedToken.setUserId(token.userId() == null ? 0L : token.userId());
+        revokedToken.setRevokedAt(LocalDateTime.now());
+        revokedToken.setExpiresAt(LocalDateTime.ofInstant(token.expiration(), ZoneId.systemDefault()));
+        revokedTokenRepository.save(revokedToken);
+
+        revokedTokenIds.put(token.tokenId(), token.expiration());
+        bloomFilter.put(tokenKey(token.tokenId()));
+    }
+
+    /**
+     * Revoke every access token a user was issued up to now, e.g. on soft delete or password change
+     * @param userId Long
+     */
+    public synchronized void revokeAllForUser(Long userId) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS); // token issue times have millisecond precision
+
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setUserId(userId);
+        revokedToken.setRevokedAt(LocalDateTime.ofInstant(now, ZoneId.systemDefault()));
+        revokedToken.setExpiresAt(LocalDateTime.ofInstant(now.plusMillis(jwtExpirationMs), ZoneId.systemDefault()));
+        revokedTokenRepository.save(revokedToken);
+
+        revokedUsers.merge(userId, now, (previous, current) -> current.isAfter(previous) ? current : previous);
+        bloomFilter.put(userKey(userId));
+    }
+
+    /**
+     * Rebuild the Bloom filter and exact sets from storage, dropping expired revocations.
+     * Runs at startup and then periodically so the filter never fills up with expired entries.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${revocation-rebuild-ms:3600000}", initialDelayString = "${revocation-rebuild-ms:3600000}")
+    public synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        List<RevokedToken> revokedTokens = revokedTokenRepository.findAllByExpiresAtAfter(now);
+
+        BloomFilter filter = new BloomFilter(Math.max(expectedRevocations, revokedTokens.size() * 2), falsePositiveRate);
+        Map<String, Instant> tokenIds = new ConcurrentHashMap<>();
+        Map<Long, Instant> users = new ConcurrentHashMap<>();
+
+        for (RevokedToken revokedToken : revokedTokens) {
+            Instant expiresAt = revokedToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant();
+            Instant revokedAt = revokedToken.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant();
+
+            if (revokedToken.getTokenId() != null) {
+                tokenIds.put(revokedToken.getTokenId(), expiresAt);
+            } else {
+                users.merge(revokedToken.getUserId(), revokedAt, (previous, current) -> current.isAfter(previous) ? current : previous);
+            }
+        }
+
+        // Keep revocations made while rebuilding
+        revokedTokenIds.forEach(tokenIds::putIfAbsent);
+        revokedUsers.forEach((userId, revokedAt) -> users.merge(userId, revokedAt, (previous, current) -> current.isAfter(previous) ? current : previous));
+
+        Instant cutoff = Instant.now();
+        tokenIds.values().removeIf(expiresAt -> !expiresAt.isAfter(cutoff));
+        users.values().removeIf(revokedAt -> !revokedAt.plusMillis(jwtExpirationMs).isAfter(cutoff));
+        tokenIds.keySet().forEach(tokenId -> filter.put(tokenKey(tokenId)));
+        users.keySet().forEach(userId -> filter.put(userKey(userId)));
+
+        revokedTokenIds = tokenIds;
+        revokedUsers = users;
+        bloomFilter = filter;
+    }
+
+    /**
+     * Revocation check counters
+     * @return Map of counter name to value
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("revokedTokens", revokedTokenIds.size());
+        stats.put("revokedUsers", revokedUsers.size());
+        stats.put("bloomPositives", bloomPositives.sum());
+        stats.put("confirmedRevocations", confirmedRevocations.sum());
+        return stats;
+    }
+
+    private static String tokenKey(String tokenId) {
+        return "t:" + tokenId;
+    }
+
+    private static String userKey(Long userId) {
+        return "u:" + userId;
+    }
+}
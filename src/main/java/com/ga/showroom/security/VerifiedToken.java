@@ -0,0 +1,35 @@
+package com.ga.showroom.security;
+
+import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.enums.UserStatus;
+
+import java.time.Instant;
+
+/**
+ * Typed claims of a JWT whose signature and expiry have been verified
+ * @param tokenId String JWT ID (jti), null for tokens issued without one
+ * @param subject String user's email address
+ * @param userId Long, null for tokens issued without user claims
+ * @param role Role, null for tokens issued without user claims
+ * @param userStatus UserStatus, null for tokens issued without user claims
+ * @param verified boolean email verified flag
+ * @param issuedAt Instant
+ * @param expiration Instant
+ */
+public record VerifiedToken(String tokenId,
+                            String subject,
+                            Long userId,
+                            Role role,
+                            UserStatus userStatus,
+                            boolean verified,
+                            Instant issuedAt,
+                            Instant expiration) {
+
+    /**
+     * Check the token carries the user claims needed to build a principal without a database lookup
+     * @return boolean
+     */
+    public boolean hasUserClaims() {
+        return userId != null && role != null && userStatus != null;
+    }
+}
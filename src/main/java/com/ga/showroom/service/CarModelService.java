@@ -1,15 +1,18 @@
 package com.ga.showroom.service;
 
+import com.ga.showroom.event.CatalogChangedEvent;
 import com.ga.showroom.exception.AccessDeniedException;
 import com.ga.showroom.exception.InformationExistException;
 import com.ga.showroom.exception.InformationNotFoundException;
 import com.ga.showroom.model.Car;
 import com.ga.showroom.model.CarModel;
 import com.ga.showroom.model.Option;
-import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.response.CursorPage;
 import com.ga.showroom.repository.CarModelRepository;
+import com.ga.showroom.utility.Cursor;
 import com.ga.showroom.utility.Uploads;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -19,18 +22,20 @@ import java.nio.file.Paths;
 import java.time.Year;
 import java.util.List;
 
-import static com.ga.showroom.service.UserService.getCurrentLoggedInUser;
+import static com.ga.showroom.service.UserService.getCurrentUser;
 
 @Service
 public class CarModelService {
     CarModelRepository carModelRepository;
     Uploads uploads;
+    ApplicationEventPublisher eventPublisher;
     final String uploadPath = "uploads/model-images";
 
     @Autowired
-    public CarModelService(CarModelRepository carModelRepository, Uploads uploads) {
+    public CarModelService(CarModelRepository carModelRepository, Uploads uploads, ApplicationEventPublisher eventPublisher) {
         this.carModelRepository = carModelRepository;
         this.uploads = uploads;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -53,11 +58,18 @@ public class CarModelService {
     }
 
     /**
-     * Find all car models
-     * @return List of CarModel
+     * Find a page of car models, newest first
+     * @param cursor String next cursor of the previous page, null for the first page
+     * @param limit Integer page size, at most 200
+     * @return CursorPage of CarModel
      */
-    public List<CarModel> getAllCarModels() {
-        return carModelRepository.findAll();
+    public CursorPage<CarModel> getAllCarModels(String cursor, Integer limit) {
+        Cursor after = Cursor.decode(cursor);
+        int pageSize = CursorPage.pageSize(limit);
+
+        List<CarModel> carModels = carModelRepository.findPage(after.createdAt(), after.id(), CursorPage.fetchLimit(pageSize));
+
+        return CursorPage.of(carModels, pageSize, CarModel::getCreatedAt, CarModel::getId);
     }
 
     /**
@@ -113,7 +125,7 @@ public class CarModelService {
      * @return CarModel
      */
     public CarModel createCarModel(CarModel carModel, MultipartFile image) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER))
+        if (getCurrentUser().isCustomer())
             throw new AccessDeniedException("You are not allowed to create a car model. " +
                     "Please contact a salesman or admin.");
 
@@ -126,7 +138,10 @@ public class CarModelService {
 
         if (uploadedImage != null) carModel.setImage(uploadedImage);
 
-        return carModelRepository.save(carModel);
+        CarModel savedCarModel = carModelRepository.save(carModel);
+        eventPublisher.publishEvent(new CatalogChangedEvent(savedCarModel.getId()));
+
+        return savedCarModel;
     }
 
     /**
@@ -138,7 +153,7 @@ public class CarModelService {
      * @return CarModel
      */
     public CarModel updateCarModel(Long carModelId, CarModel carModel, MultipartFile image) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER))
+        if (getCurrentUser().isCustomer())
             throw new AccessDeniedException("You are not allowed to update a car model");
 
         CarModel updatedCarModel = getCarModelById(carModelId);
@@ -162,7 +177,10 @@ public class CarModelService {
         if (carModel.getManufacturer() != null) updatedCarModel.setManufacturer(carModel.getManufacturer());
         if (carModel.getPrice() != null) updatedCarModel.setPrice(carModel.getPrice());
 
-        return carModelRepository.save(updatedCarModel);
+        CarModel savedCarModel = carModelRepository.save(updatedCarModel);
+        eventPublisher.publishEvent(new CatalogChangedEvent(savedCarModel.getId()));
+
+        return savedCarModel;
     }
 
     /**
@@ -170,7 +188,7 @@ public class CarModelService {
      * @param carModelId Long
      */
     public void deleteCarModel(Long carModelId) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER))
+        if (getCurrentUser().isCustomer())
             throw new AccessDeniedException("You are not allowed to delete a car model");
 
         CarModel carModel = getCarModelById(carModelId);
@@ -178,6 +196,7 @@ public class CarModelService {
         if (carModel == null) throw new InformationNotFoundException("Car Model with ID " + carModelId + " not found");
 
         carModelRepository.delete(carModel);
+        eventPublisher.publishEvent(new CatalogChangedEvent(carModelId));
     }
 
     /**
@@ -6,14 +6,17 @@ import com.ga.showroom.exception.InformationNotFoundException;
 import com.ga.showroom.model.Car;
 import com.ga.showroom.model.CarOption;
 import com.ga.showroom.model.Option;
-import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.response.CursorPage;
 import com.ga.showroom.repository.CarOptionRepository;
+import com.ga.showroom.utility.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-import static com.ga.showroom.service.UserService.getCurrentLoggedInUser;
+import static com.ga.showroom.service.UserService.getCurrentUser;
 
 @Service
 public class CarOptionService {
@@ -37,8 +40,7 @@ public class CarOptionService {
         CarOption carOption = carOptionRepository.findById(carOptionId)
                 .orElseThrow(() -> new InformationNotFoundException("Car option with ID " + carOptionId + " not found"));
 
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER) // not owner customer not allowed to view data
-                && !carOption.getCar().getOwner().getId().equals(getCurrentLoggedInUser().getId()))
+        if (!getCurrentUser().canView(carOption.getCar().getOwner())) // not owner customer not allowed to view data
             throw new AccessDeniedException("You are not authorized to view this vehicle's information. " +
                     "Please contact a salesman or the vehicle's owner.");
 
@@ -57,8 +59,7 @@ public class CarOptionService {
         if (carOption == null)
             throw new InformationNotFoundException("Car option with Option ID " + optionId + " and Car ID " + carId + " not found");
 
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER) // not owner customer not allowed to view data
-                && !carOption.getCar().getOwner().getId().equals(getCurrentLoggedInUser().getId()))
+        if (!getCurrentUser().canView(carOption.getCar().getOwner())) // not owner customer not allowed to view data
             throw new AccessDeniedException("You are not authorized to view this vehicle's information. " +
                     "Please contact a salesman or the vehicle's owner.");
 
@@ -66,14 +67,20 @@ public class CarOptionService {
     }
 
     /**
-     * Get all car options in database
-     * @return List of CarOption
+     * Get a page of car options in database, newest first
+     * @param cursor String next cursor of the previous page, null for the first page
+     * @param limit Integer page size, at most 200
+     * @return CursorPage of CarOption
      */
-    public List<CarOption> getAll() {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // Customer views their own data only
-            return carOptionRepository.findAllByCarOwnerId(getCurrentLoggedInUser().getId());
+    public CursorPage<CarOption> getAll(String cursor, Integer limit) {
+        Cursor after = Cursor.decode(cursor);
+        int pageSize = CursorPage.pageSize(limit);
+
+        List<CarOption> carOptions = getCurrentUser().isCustomer() // Customer views their own data only
+                ? carOptionRepository.findPageByCarOwnerId(getCurrentUser().getId(), after.createdAt(), after.id(), CursorPage.fetchLimit(pageSize))
+                : carOptionRepository.findPage(after.createdAt(), after.id(), CursorPage.fetchLimit(pageSize));
 
-        return carOptionRepository.findAll();
+        return CursorPage.of(carOptions, pageSize, CarOption::getCreatedAt, CarOption::getId);
     }
 
     /**
@@ -82,8 +89,8 @@ public class CarOptionService {
      * @return List of CarOption
      */
     public List<CarOption> getAllByOptionId(Long optionId) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // Customer views their own data only
-            return carOptionRepository.findAllByOptionIdAndCarOwnerId(optionId, getCurrentLoggedInUser().getId());
+        if (getCurrentUser().isCustomer()) // Customer views their own data only
+            return carOptionRepository.findAllByOptionIdAndCarOwnerId(optionId, getCurrentUser().getId());
 
         return carOptionRepository.findAllByOptionId(optionId);
     }
@@ -96,8 +103,7 @@ public class CarOptionService {
     public List<CarOption> getAllByCarId(Long carId) {
         Car car = carService.getCarById(carId);
 
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER) // not owner customer not allowed to view data
-                && !car.getOwner().getId().equals(getCurrentLoggedInUser().getId()))
+        if (!getCurrentUser().canView(car.getOwner())) // not owner customer not allowed to view data
             throw new AccessDeniedException("You are not authorized to view this vehicle's information. " +
                     "Please contact a salesman or the vehicle's owner.");
 
@@ -111,7 +117,7 @@ public class CarOptionService {
      * @return CarOption
      */
     public CarOption createCarOption(Long optionId, Long carId) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // Only a salesman or admin may create new orders that contain new car data
+        if (getCurrentUser().isCustomer()) // Only a salesman or admin may create new orders that contain new car data
             throw new AccessDeniedException("You are not authorized to create new car options. Please contact a salesman or admin.");
 
         Option option = optionService.getOptionById(optionId);
@@ -131,4 +137,26 @@ public class CarOptionService {
 
         return carOptionRepository.save(carOption);
     }
+
+    /**
+     * Add several already validated options to a new car, written in one batch.
+     * Skips the per-option lookups and existence checks of createCarOption, so only use it for a car created in the same transaction.
+     * @param car Car
+     * @param optionIds Collection of Long
+     * @return List of CarOption
+     */
+    public List<CarOption> createCarOptions(Car car, Collection<Long> optionIds) {
+        if (getCurrentUser().isCustomer()) // Only a salesman or admin may create new orders that contain new car data
+            throw new AccessDeniedException("You are not authorized to create new car options. Please contact a salesman or admin.");
+
+        List<CarOption> carOptions = new ArrayList<>(optionIds.size());
+        for (Long optionId : optionIds) {
+            CarOption carOption = new CarOption();
+            carOption.setOption(optionService.getOptionReference(optionId));
+            carOption.setCar(car);
+            carOptions.add(carOption);
+        }
+
+        return carOptionRepository.saveAll(carOptions);
+    }
 }
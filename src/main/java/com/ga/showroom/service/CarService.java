@@ -4,8 +4,9 @@ import com.ga.showroom.exception.AccessDeniedException;
 import com.ga.showroom.exception.InformationExistException;
 import com.ga.showroom.exception.InformationNotFoundException;
 import com.ga.showroom.model.*;
-import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.response.CursorPage;
 import com.ga.showroom.repository.CarRepository;
+import com.ga.showroom.utility.Cursor;
 import com.ga.showroom.utility.Uploads;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
@@ -15,7 +16,7 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Objects;
 
-import static com.ga.showroom.service.UserService.getCurrentLoggedInUser;
+import static com.ga.showroom.service.UserService.getCurrentUser;
 
 @Service
 public class CarService {
@@ -38,8 +39,7 @@ public class CarService {
         Car car = carRepository.findById(carId)
                 .orElseThrow(() -> new InformationNotFoundException("Car with ID " + carId + " not found"));
 
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER) // not owner customer not allowed to view data
-                && !car.getOwner().getId().equals(getCurrentLoggedInUser().getId()))
+        if (!getCurrentUser().canView(car.getOwner())) // not owner customer not allowed to view data
             throw new AccessDeniedException("You are not authorized to view this vehicle's information. " +
                     "Please contact a salesman or the vehicle's owner.");
 
@@ -56,8 +56,7 @@ public class CarService {
 
         if (car == null) throw new InformationNotFoundException("Car with registration number " + registrationNumber + " not found");
 
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER) // not owner customer not allowed to view data
-                && !car.getOwner().getId().equals(getCurrentLoggedInUser().getId()))
+        if (!getCurrentUser().canView(car.getOwner())) // not owner customer not allowed to view data
             throw new AccessDeniedException("You are not authorized to view this vehicle's information. " +
                     "Please contact a salesman or the vehicle's owner.");
 
@@ -74,8 +73,7 @@ public class CarService {
 
         if (car == null) throw new InformationNotFoundException("Car with insurance policy " + insurancePolicy + " not found");
 
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER) // not owner customer not allowed to view data
-                && !car.getOwner().getId().equals(getCurrentLoggedInUser().getId()))
+        if (!getCurrentUser().canView(car.getOwner())) // not owner customer not allowed to view data
             throw new AccessDeniedException("You are not authorized to view this vehicle's information. " +
                     "Please contact a salesman or the vehicle's owner.");
 
@@ -92,8 +90,7 @@ public class CarService {
 
         if (car == null) throw new InformationNotFoundException("Car with vin " + vinNumber + " not found");
 
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER) // not owner customer not allowed to view data
-                && !car.getOwner().getId().equals(getCurrentLoggedInUser().getId()))
+        if (!getCurrentUser().canView(car.getOwner())) // not owner customer not allowed to view data
             throw new AccessDeniedException("You are not authorized to view this vehicle's information. " +
                     "Please contact a salesman or the vehicle's owner.");
 
@@ -101,14 +98,20 @@ public class CarService {
     }
 
     /**
-     * Get all cars in storage
-     * @return List of Car
+     * Get a page of cars in storage, newest first
+     * @param cursor String next cursor of the previous page, null for the first page
+     * @param limit Integer page size, at most 200
+     * @return CursorPage of Car
      */
-    public List<Car> getAllCars() {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // Customer views own data only
-            return carRepository.findAllByOwnerId(getCurrentLoggedInUser().getId());
+    public CursorPage<Car> getAllCars(String cursor, Integer limit) {
+        Cursor after = Cursor.decode(cursor);
+        int pageSize = CursorPage.pageSize(limit);
+
+        List<Car> cars = getCurrentUser().isCustomer() // Customer views own data only
+                ? carRepository.findPageByOwnerId(getCurrentUser().getId(), after.createdAt(), after.id(), CursorPage.fetchLimit(pageSize))
+                : carRepository.findPage(after.createdAt(), after.id(), CursorPage.fetchLimit(pageSize));
 
-        return carRepository.findAll();
+        return CursorPage.of(cars, pageSize, Car::getCreatedAt, Car::getId);
     }
 
     /**
@@ -117,8 +120,8 @@ public class CarService {
      * @return List of Car
      */
     public List<Car> getByCarModelId(Long carModelId) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // Customer views own data only
-            return carRepository.findAllByCarModelIdAndOwnerId(carModelId, getCurrentLoggedInUser().getId());
+        if (getCurrentUser().isCustomer()) // Customer views own data only
+            return carRepository.findAllByCarModelIdAndOwnerId(carModelId, getCurrentUser().getId());
 
         return carRepository.findByCarModelId(carModelId);
     }
@@ -134,7 +137,7 @@ public class CarService {
      * @return Car
      */
     public Car createCar(Car car, User owner, CarModel carModel, String image, List<CarOption> carOptions, Order order) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // Only a salesman or admin may create new orders that contain new car data
+        if (getCurrentUser().isCustomer()) // Only a salesman or admin may create new orders that contain new car data
             throw new AccessDeniedException("You are not authorized to create new cars. Please contact a salesman or admin.");
 
         if (carRepository.existsByRegistrationNumber(car.getRegistrationNumber()))
@@ -167,7 +170,7 @@ public class CarService {
      * @return Car
      */
     public Car updateCar(Long carId, Car car, User owner) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // Only a salesman or admin may create new orders that contain new car data
+        if (getCurrentUser().isCustomer()) // Only a salesman or admin may create new orders that contain new car data
             throw new AccessDeniedException("You are not authorized to update car details. Please contact a salesman or admin.");
 
         Car updatedCar = getCarById(carId);
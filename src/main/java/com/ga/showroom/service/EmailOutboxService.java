@@ -0,0 +1,237 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.model.EmailOutbox;
+import com.ga.showroom.model.enums.EmailStatus;
+import com.ga.showroom.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Transactional email outbox. Callers enqueue emails inside their own transaction, and a background
+ * dispatcher delivers them in batches over a single SMTP connection, retrying with exponential backoff.
+ * A batch is claimed and marked in two short transactions, so no row lock or connection is held while
+ * talking to the mail server. Finished emails are purged after a retention period.
+ */
+@Service
+public class EmailOutboxService {
+    Logger logger = Logger.getLogger(EmailOutboxService.class.getName());
+
+    private static final String SENDER = "no-reply@showroom.com";
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBaseSeconds;
+    private final long retryMaxSeconds;
+    private final long leaseSeconds;
+    private final long retentionDays;
+    private final int purgeBatchSize;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              @Lazy JavaMailSender mailSender,
+                              @Value("${email-outbox-batch-size:20}") int batchSize,
+                              @Value("${email-outbox-max-attempts:8}") int maxAttempts,
+                              @Value("${email-outbox-retry-base-seconds:30}") long retryBaseSeconds,
+                              @Value("${email-outbox-retry-max-seconds:3600}") long retryMaxSeconds,
+                              @Value("${email-outbox-lease-seconds:300}") long leaseSeconds,
+                              @Value("${email-outbox-retention-days:30}") long retentionDays,
+                              @Value("${email-outbox-purge-batch-size:1000}") int purgeBatchSize,
+                              PlatformTransactionManager transactionManager) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseSeconds = retryBaseSeconds;
+        this.retryMaxSeconds = retryMaxSeconds;
+        this.leaseSeconds = leaseSeconds;
+        this.retentionDays = retentionDays;
+        this.purgeBatchSize = purgeBatchSize;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Queue a plain text email. Joins the caller's transaction.
+     * @param recipient String email address
+     * @param subject String
+     * @param body String
+     * @return EmailOutbox
+     */
+    @Transactional
+    public EmailOutbox enqueue(String recipient, String subject, String body) {
+        return enqueue(recipient, subject, body, null, null);
+    }
+
+    /**
+     * Queue an email with an attachment. Joins the caller's transaction.
+     * @param recipient String email address
+     * @param subject String
+     * @param body String
+     * @param attachmentName String file name shown to the recipient, null for none
+     * @param attachment byte[] file content, null for none
+     * @return EmailOutbox
+     */
+    @Transactional
+    public EmailOutbox enqueue(String recipient, String subject, String body, String attachmentName, byte[] attachment) {
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setAttachmentName(attachmentName);
+        email.setAttachment(attachment);
+        email.setStatus(EmailStatus.PENDING);
+        email.setAttempts(0);
+        email.setNextAttemptAt(LocalDateTime.now());
+
+        return emailOutboxRepository.save(email);
+    }
+
+    /**
+     * Deliver one batch of due emails over a single SMTP connection. Failed emails are rescheduled with
+     * exponential backoff, and moved to DEAD after the maximum number of attempts. An email whose dispatcher
+     * dies mid-send is retried once its lease runs out.
+     */
+    @Scheduled(fixedDelayString = "${email-outbox-poll-ms:5000}")
+    public void dispatchBatch() {
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) return;
+
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        Map<EmailOutbox, Exception> failures = new HashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException e) {
+                failures.put(email, e);
+            }
+        }
+
+        if (!messages.isEmpty()) { // outside any transaction
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((message, failure) -> failures.put(messages.get(message), failure));
+                if (e.getFailedMessages().isEmpty()) messages.values().forEach(email -> failures.put(email, e));
+            } catch (MailException e) {
+                messages.values().forEach(email -> failures.put(email, e));
+            }
+        }
+
+        for (EmailOutbox email : batch) {
+            Exception failure = failures.get(email);
+            if (failure == null) markSent(email);
+            else markFailed(email, failure);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(batch));
+    }
+
+    /**
+     * Delete sent and dead emails, with their attachments, once they are older than the retention period.
+     * Each batch is its own transaction.
+     */
+    @Scheduled(cron = "${email-outbox-purge-cron:0 30 * * * *}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = emailOutboxRepository.deleteFinishedBatch(cutoff, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+
+        if (total > 0) logger.info("Purged " + total + " finished outbox emails");
+    }
+
+    /**
+     * Count emails in each delivery status
+     * @return Map of status to count
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (EmailStatus status : EmailStatus.values()) {
+            stats.put(status.name().toLowerCase(), emailOutboxRepository.countByStatus(status));
+        }
+        return stats;
+    }
+
+    /**
+     * Build the MIME message of a queued email
+     * @param email EmailOutbox
+     * @return MimeMessage
+     * @throws MessagingException invalid address or content
+     */
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.getAttachment() != null);
+
+        helper.setTo(email.getRecipient());
+        helper.setFrom(SENDER);
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody());
+
+        if (email.getAttachment() != null)
+            helper.addAttachment(email.getAttachmentName(), new ByteArrayResource(email.getAttachment()));
+
+        return message;
+    }
+
+    /**
+     * Lock a batch of due emails and lease them to this dispatcher by moving them to SENDING
+     * @return List of EmailOutbox
+     */
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = emailOutboxRepository.lockDueBatch(now, batchSize);
+
+        for (EmailOutbox email : batch) {
+            email.setStatus(EmailStatus.SENDING);
+            email.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+        }
+        return emailOutboxRepository.saveAll(batch);
+    }
+
+    private void markSent(EmailOutbox email) {
+        email.setStatus(EmailStatus.SENT);
+        email.setAttachment(null); // only needed until delivered
+        email.setAttempts(email.getAttempts() + 1);
+        email.setLastError(null);
+    }
+
+    private void markFailed(EmailOutbox email, Exception failure) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(failure.getMessage());
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailStatus.DEAD);
+            logger.log(Level.SEVERE, "Email " + email.getId() + " to " + email.getRecipient() + " moved to dead letter: {0}", failure.getMessage());
+            return;
+        }
+
+        email.setStatus(EmailStatus.PENDING);
+        long delaySeconds = Math.min(retryMaxSeconds, retryBaseSeconds << Math.min(attempts - 1, 20));
+        email.setNextAttemptAt(LocalDateTime.now().plusSeconds(delaySeconds));
+        logger.log(Level.WARNING, "Email " + email.getId() + " delivery failed, retrying in " + delaySeconds + "s: {0}", failure.getMessage());
+    }
+}
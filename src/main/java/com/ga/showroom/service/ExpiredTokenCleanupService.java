@@ -0,0 +1,84 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.repository.EmailVerificationTokenRepository;
+import com.ga.showroom.repository.PasswordResetTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.logging.Logger;
+
+/**
+ * Periodically deletes expired password reset and email verification tokens in bounded batches
+ */
+@Service
+public class ExpiredTokenCleanupService {
+    Logger logger = Logger.getLogger(ExpiredTokenCleanupService.class.getName());
+
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final EmailVerificationTokenRepository emailVerificationTokenRepository;
+    private final int batchSize;
+
+    private volatile LocalDateTime lastRunAt;
+    private volatile int lastPasswordResetTokensDeleted;
+    private volatile int lastEmailVerificationTokensDeleted;
+    private volatile long lastRunDurationMs;
+
+    @Autowired
+    public ExpiredTokenCleanupService(PasswordResetTokenRepository passwordResetTokenRepository,
+                                      EmailVerificationTokenRepository emailVerificationTokenRepository,
+                                      @Value("${token-cleanup-batch-size:1000}") int batchSize) {
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.emailVerificationTokenRepository = emailVerificationTokenRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Delete every token that expired before this run started. Each batch is its own transaction,
+     * so row locks are held briefly and a failure only loses the current batch.
+     */
+    @Scheduled(cron = "${token-cleanup-cron:0 */10 * * * *}")
+    public void purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+
+        int passwordResetTokens = purge(passwordResetTokenRepository::deleteExpiredBatch, now);
+        int emailVerificationTokens = purge(emailVerificationTokenRepository::deleteExpiredBatch, now);
+
+        lastRunAt = now;
+        lastPasswordResetTokensDeleted = passwordResetTokens;
+        lastEmailVerificationTokensDeleted = emailVerificationTokens;
+        lastRunDurationMs = System.currentTimeMillis() - start;
+
+        logger.info("Purged " + passwordResetTokens + " expired password reset tokens and "
+                + emailVerificationTokens + " expired email verification tokens in " + lastRunDurationMs + "ms");
+    }
+
+    /**
+     * Get the results of the last cleanup run
+     * @return Map of counter name to value
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("passwordResetTokensDeleted", lastPasswordResetTokensDeleted);
+        stats.put("emailVerificationTokensDeleted", lastEmailVerificationTokensDeleted);
+        stats.put("durationMs", lastRunDurationMs);
+        return stats;
+    }
+
+    private int purge(BiFunction<LocalDateTime, Integer, Integer> deleteBatch, LocalDateTime now) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch.apply(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.exception.BadRequestException;
+import com.ga.showroom.exception.ServiceUnavailableException;
+import com.ga.showroom.utility.BoundedCache;
+import com.ga.showroom.utility.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static com.ga.showroom.service.UserService.getCurrentUser;
+
+/**
+ * Runs a create request at most once per Idempotency-Key. The key is scoped to the logged-in user and remembers
+ * the request's hash and the ID of what it created. A replay gets the stored ID back, and a concurrent duplicate
+ * waits for the in-flight attempt instead of running it again.
+ */
+@Service
+public class IdempotencyService {
+    private final BoundedCache<String, IdempotentRequest> requests;
+    private final long waitSeconds;
+
+    /**
+     * A request seen under an idempotency key
+     * @param requestHash String hash of the request body, a key may not be reused for a different request
+     * @param result CompletableFuture of the created ID, completed once the creating transaction has committed
+     */
+    private record IdempotentRequest(String requestHash, CompletableFuture<Long> result) {
+    }
+
+    @Autowired
+    public IdempotencyService(@Value("${idempotency-max-entries:10000}") int maxEntries,
+                              @Value("${idempotency-ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${idempotency-wait-seconds:30}") long waitSeconds) {
+        this.requests = new BoundedCache<>(maxEntries, Duration.ofSeconds(ttlSeconds));
+        this.waitSeconds = waitSeconds;
+    }
+
+    /**
+     * Run a create action once per idempotency key
+     * @param idempotencyKey String Idempotency-Key header sent by the client
+     * @param requestHash String hash of the request body
+     * @param action Supplier creating the resource in its own transaction and returning its ID
+     * @return Long ID of the created resource, from this call or the first call with the same key
+     */
+    public Long execute(String idempotencyKey, String requestHash, Supplier<Long> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > 255)
+            throw new BadRequestException("Idempotency-Key must be between 1 and 255 characters");
+
+        String key = getCurrentUser().getId() + ":" + idempotencyKey;
+        IdempotentRequest request = new IdempotentRequest(requestHash, new CompletableFuture<>());
+        IdempotentRequest existing = requests.putIfAbsent(key, request);
+
+        if (existing != null) {
+            if (!existing.requestHash().equals(requestHash))
+                throw new BadRequestException("Idempotency-Key " + idempotencyKey + " was already used for a different request");
+
+            return await(existing);
+        }
+
+        try {
+            Long id = action.get();
+            request.result().complete(id);
+            return id;
+        } catch (RuntimeException e) {
+            // forget the failed attempt so a retry runs again, waiting duplicates get the same error
+            requests.invalidate(key, request);
+            request.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the idempotency store's counters
+     * @return CacheStats
+     */
+    public CacheStats getStats() {
+        return requests.stats();
+    }
+
+    private Long await(IdempotentRequest request) {
+        try {
+            return request.result().get(waitSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("The original request is still being processed. Please retry later.", waitSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the original request. Please retry later.", 1);
+        }
+    }
+}
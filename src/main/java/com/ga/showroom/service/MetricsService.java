@@ -0,0 +1,91 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.exception.AccessDeniedException;
+import com.ga.showroom.security.AuthRateLimiter;
+import com.ga.showroom.security.JwtVerifier;
+import com.ga.showroom.security.MyUserDetailsService;
+import com.ga.showroom.security.PooledPasswordEncoder;
+import com.ga.showroom.security.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.ga.showroom.service.UserService.getCurrentUser;
+
+@Service
+public class MetricsService {
+    JwtVerifier jwtVerifier;
+    MyUserDetailsService myUserDetailsService;
+    PooledPasswordEncoder passwordEncoder;
+    EmailOutboxService emailOutboxService;
+    AuthRateLimiter authRateLimiter;
+    TokenRevocationService tokenRevocationService;
+    ExpiredTokenCleanupService expiredTokenCleanupService;
+    IdempotencyService idempotencyService;
+    PriceEngine priceEngine;
+    SalesRollupService salesRollupService;
+    OrderEventStream orderEventStream;
+    ReceiptJobService receiptJobService;
+    ReceiptCacheService receiptCacheService;
+    ReceiptArchiveService receiptArchiveService;
+
+    @Autowired
+    public MetricsService(JwtVerifier jwtVerifier,
+                          MyUserDetailsService myUserDetailsService,
+                          PooledPasswordEncoder passwordEncoder,
+                          EmailOutboxService emailOutboxService,
+                          AuthRateLimiter authRateLimiter,
+                          TokenRevocationService tokenRevocationService,
+                          ExpiredTokenCleanupService expiredTokenCleanupService,
+                          IdempotencyService idempotencyService,
+                          PriceEngine priceEngine,
+                          SalesRollupService salesRollupService,
+                          OrderEventStream orderEventStream,
+                          ReceiptJobService receiptJobService,
+                          ReceiptCacheService receiptCacheService,
+                          ReceiptArchiveService receiptArchiveService) {
+        this.jwtVerifier = jwtVerifier;
+        this.myUserDetailsService = myUserDetailsService;
+        this.passwordEncoder = passwordEncoder;
+        this.emailOutboxService = emailOutboxService;
+        this.authRateLimiter = authRateLimiter;
+        this.tokenRevocationService = tokenRevocationService;
+        this.expiredTokenCleanupService = expiredTokenCleanupService;
+        this.idempotencyService = idempotencyService;
+        this.priceEngine = priceEngine;
+        this.salesRollupService = salesRollupService;
+        this.orderEventStream = orderEventStream;
+        this.receiptJobService = receiptJobService;
+        this.receiptCacheService = receiptCacheService;
+        this.receiptArchiveService = receiptArchiveService;
+    }
+
+    /**
+     * Get the runtime counters of the app's caches and limiters. Admin only.
+     * @return Map of metric group name to its counters
+     */
+    public Map<String, Object> getMetrics() {
+        if (!getCurrentUser().isAdmin())
+            throw new AccessDeniedException("Only an admin is authorized to view system metrics.");
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("jwtCache", jwtVerifier.getCacheStats());
+        metrics.put("principalCache", myUserDetailsService.getCacheStats());
+        metrics.put("passwordHashing", passwordEncoder.getStats());
+        metrics.put("emailOutbox", emailOutboxService.getStats());
+        metrics.put("authRateLimit", authRateLimiter.getStats());
+        metrics.put("tokenRevocation", tokenRevocationService.getStats());
+        metrics.put("expiredTokenCleanup", expiredTokenCleanupService.getStats());
+        metrics.put("orderIdempotency", idempotencyService.getStats());
+        metrics.put("priceEngine", priceEngine.getStats());
+        metrics.put("salesRollups", salesRollupService.getStats());
+        metrics.put("orderStream", orderEventStream.getStats());
+        metrics.put("receiptJobs", receiptJobService.getStats());
+        metrics.put("receiptCache", receiptCacheService.getStats());
+        metrics.put("receiptArchive", receiptArchiveService.getStats());
+
+        return metrics;
+    }
+}
@@ -1,27 +1,34 @@
 package com.ga.showroom.service;
 
+import com.ga.showroom.event.CatalogChangedEvent;
 import com.ga.showroom.exception.AccessDeniedException;
 import com.ga.showroom.exception.InformationExistException;
 import com.ga.showroom.exception.InformationNotFoundException;
 import com.ga.showroom.model.OptionCategory;
-import com.ga.showroom.model.enums.Role;
 import com.ga.showroom.repository.OptionCategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
-import static com.ga.showroom.service.UserService.getCurrentLoggedInUser;
+import static com.ga.showroom.service.UserService.getCurrentUser;
 
 @Service
 public class OptionCategoryService {
     OptionCategoryRepository optionCategoryRepository;
+    ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public void setOptionCategoryRepository(OptionCategoryRepository optionCategoryRepository) {
         this.optionCategoryRepository = optionCategoryRepository;
     }
 
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
     /**
      * Get an option category by its ID
      * @param optionCategoryId Long
@@ -58,7 +65,7 @@ public class OptionCategoryService {
      * @return OptionCategory
      */
     public OptionCategory createOptionCategory(OptionCategory optionCategory) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER))
+        if (getCurrentUser().isCustomer())
             throw new AccessDeniedException("You are not allowed to create an Option Category. " +
                     "Please contact a salesman or admin.");
 
@@ -77,7 +84,7 @@ public class OptionCategoryService {
      * @return OptionCategory
      */
     public OptionCategory updateOptionCategory(Long optionCategoryId, OptionCategory optionCategory) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER))
+        if (getCurrentUser().isCustomer())
             throw new AccessDeniedException("You are not allowed to update an Option Category. " +
                     "Please contact a salesman or admin.");
 
@@ -101,7 +108,7 @@ public class OptionCategoryService {
      * @param optionCategoryId Long
      */
     public void deleteOptionCategory(Long optionCategoryId) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER))
+        if (getCurrentUser().isCustomer())
             throw new AccessDeniedException("You are not allowed to delete an Option Category. " +
                     "Please contact a salesman or admin.");
 
@@ -110,5 +117,6 @@ public class OptionCategoryService {
         if (storedOptionCategory == null) throw new InformationNotFoundException("OptionCategory with id " + optionCategoryId + " not found");
 
         optionCategoryRepository.delete(storedOptionCategory);
+        eventPublisher.publishEvent(new CatalogChangedEvent(null)); // its options of every model were removed
     }
 }
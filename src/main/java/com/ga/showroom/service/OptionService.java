@@ -1,22 +1,27 @@
 package com.ga.showroom.service;
 
+import com.ga.showroom.event.CatalogChangedEvent;
 import com.ga.showroom.exception.AccessDeniedException;
 import com.ga.showroom.exception.InformationExistException;
 import com.ga.showroom.exception.InformationNotFoundException;
 import com.ga.showroom.model.CarModel;
 import com.ga.showroom.model.Option;
 import com.ga.showroom.model.OptionCategory;
-import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.dto.OptionPrice;
 import com.ga.showroom.repository.CarModelRepository;
 import com.ga.showroom.repository.OptionCategoryRepository;
 import com.ga.showroom.repository.OptionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
-import static com.ga.showroom.service.UserService.getCurrentLoggedInUser;
+import static com.ga.showroom.service.UserService.getCurrentUser;
 
 @Service
 public class OptionService {
@@ -24,6 +29,7 @@ public class OptionService {
     private CarModelRepository carModelRepository;
     private OptionCategoryRepository optionCategoryRepository;
     private UserService userService;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public void setOptionRepository(OptionRepository optionRepository, CarModelRepository carModelRepository,
@@ -34,6 +40,11 @@ public class OptionService {
         this.userService =userService;
     }
 
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
     /**
      * read all options related to specific car model and option category
      * @param carModelId Long
@@ -59,6 +70,27 @@ public class OptionService {
                 .orElseThrow(() -> new InformationNotFoundException("Option with id " + optionId + " not found"));
     }
 
+    /**
+     * Resolve the id, car model and price of several options with a single query
+     * @param optionIds Collection of Long
+     * @return Map of option ID to OptionPrice, unknown IDs are absent
+     */
+    public Map<Long, OptionPrice> getOptionPrices(Collection<Long> optionIds) {
+        if (optionIds.isEmpty()) return Map.of();
+
+        return optionRepository.findOptionPricesByIdIn(optionIds).stream()
+                .collect(Collectors.toMap(OptionPrice::id, optionPrice -> optionPrice));
+    }
+
+    /**
+     * Get a reference to an option without loading it, for setting associations
+     * @param optionId Long
+     * @return Option
+     */
+    public Option getOptionReference(Long optionId) {
+        return optionRepository.getReferenceById(optionId);
+    }
+
     /**
      * read one options related to specific car model and option category
      * @param carModelId Long
@@ -78,7 +110,7 @@ public class OptionService {
      * @return Option
      */
     public Option createOption(Long carModelId, Long optionCategoryId, Option optionObj){
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER))
+        if (getCurrentUser().isCustomer())
             throw new AccessDeniedException("You are not allowed to create an Option. " +
                     "Please contact a salesman or admin.");
 
@@ -91,7 +123,9 @@ public class OptionService {
         }else{
             optionObj.setCarModel(carModel);
             optionObj.setOptionCategory(optionCategory);
-            return optionRepository.save(optionObj);
+            Option savedOption = optionRepository.save(optionObj);
+            eventPublisher.publishEvent(new CatalogChangedEvent(carModelId));
+            return savedOption;
         }
     }
     /**
@@ -103,7 +137,7 @@ public class OptionService {
      * @return Option
      */
     public Option updateOption(Long carModelId, Long optionCategoryId, Long optionId, Option optionObj){
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER))
+        if (getCurrentUser().isCustomer())
             throw new AccessDeniedException("You are not allowed to update an Option. " +
                     "Please contact a salesman or admin.");
 
@@ -112,6 +146,8 @@ public class OptionService {
         if (optionObj.getName() != null) option.setName(optionObj.getName());
         if (optionObj.getPrice() != null) option.setPrice(optionObj.getPrice());
 
-        return optionRepository.save(option);
+        Option savedOption = optionRepository.save(option);
+        eventPublisher.publishEvent(new CatalogChangedEvent(carModelId));
+        return savedOption;
     }
 }
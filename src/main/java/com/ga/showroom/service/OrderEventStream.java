@@ -0,0 +1,247 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.event.OrderCreatedEvent;
+import com.ga.showroom.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.ga.showroom.service.UserService.getCurrentUser;
+
+/**
+ * Server-sent events stream of committed new orders. The most recent events are kept in a fixed-size ring buffer
+ * so a reconnecting client can resume after its Last-Event-ID. Event ids are prefixed with a per-boot epoch, since
+ * the sequence restarts with the application and an id from an earlier run says nothing about what was missed. Each subscriber gets a bounded queue drained by a
+ * small dispatch pool; a subscriber whose queue fills up is disconnected instead of holding events in memory.
+ */
+@Service
+public class OrderEventStream {
+    private static final String ORDER_CREATED = "order-created";
+    private static final String RESET = "reset";
+
+    private final Message[] ring;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor dispatcher;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final long retryAfterSeconds;
+    private final AtomicLong dropped = new AtomicLong();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private long nextEventId = 1;
+
+    /**
+     * An event, a reset notice or a heartbeat waiting to be sent to a subscriber
+     * @param id long event id, 0 for reset and heartbeat
+     * @param name String event name, null for a heartbeat comment
+     * @param event OrderCreatedEvent, null unless name is order-created
+     */
+    private record Message(long id, String name, OrderCreatedEvent event) {
+    }
+
+    /**
+     * One connected client
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long customerId; // null when the subscriber may see every order
+        private final BlockingQueue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Long customerId, int queueCapacity) {
+            this.emitter = emitter;
+            this.customerId = customerId;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private boolean canSee(OrderCreatedEvent event) {
+            return customerId == null || customerId.equals(event.customerId());
+        }
+    }
+
+    @Autowired
+    public OrderEventStream(@Value("${order-stream-buffer-size:256}") int bufferSize,
+                            @Value("${order-stream-timeout-ms:1800000}") long timeoutMs,
+                            @Value("${order-stream-max-subscribers:500}") int maxSubscribers,
+                            @Value("${order-stream-dispatch-threads:2}") int dispatchThreads,
+                            @Value("${order-stream-retry-after-seconds:5}") long retryAfterSeconds) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.ring = new Message[bufferSize];
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), // at most one pending drain task per subscriber
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Subscribe the logged-in user to new orders. Customers only receive their own orders, like getAll.
+     * @param lastEventId String optional Last-Event-ID to resume after; a reset event is sent first
+     *                    if events after it have already left the buffer
+     * @return SseEmitter
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        Long customerId = getCurrentUser().isCustomer() ? getCurrentUser().getId() : null; // Customer views own data only
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, customerId, ring.length + 1);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        synchronized (this) { // check the limit, replay and register together so no event falls between them
+            if (subscribers.size() >= maxSubscribers)
+                throw new ServiceUnavailableException("Too many order stream subscribers. Please try again shortly.", retryAfterSeconds);
+
+            replay(subscriber, parseEventId(lastEventId));
+            subscribers.add(subscriber);
+        }
+
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Buffer a committed order and queue it for every subscriber allowed to see it
+     * @param event OrderCreatedEvent
+     */
+    @TransactionalEventListener
+    public synchronized void onOrderCreated(OrderCreatedEvent event) {
+        Message message = new Message(nextEventId, ORDER_CREATED, event);
+        ring[(int) (nextEventId % ring.length)] = message;
+        nextEventId++;
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.canSee(event)) offer(subscriber, message);
+        }
+    }
+
+    /**
+     * Send a comment to every subscriber so idle connections stay open and dead ones are detected
+     */
+    @Scheduled(fixedDelayString = "${order-stream-heartbeat-ms:15000}")
+    public void heartbeat() {
+        Message heartbeat = new Message(0, null, null);
+        for (Subscriber subscriber : subscribers) offer(subscriber, heartbeat);
+    }
+
+    /**
+     * Get the order stream's counters
+     * @return Map of counter name to value
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("lastEventId", nextEventId - 1);
+        stats.put("bufferSize", ring.length);
+        stats.put("droppedSubscribers", dropped.get());
+        return stats;
+    }
+
+    /**
+     * Queue the buffered events after lastEventId that the subscriber may see. Caller holds the monitor.
+     * @param subscriber Subscriber
+     * @param lastEventId long, -1 for a fresh subscription, or 0 for an id from another run or not recognised
+     */
+    private void replay(Subscriber subscriber, long lastEventId) {
+        if (lastEventId < 0) return;
+
+        long oldestEventId = Math.max(1, nextEventId - ring.length);
+        boolean known = lastEventId > 0 && lastEventId < nextEventId;
+        if (!known || lastEventId + 1 < oldestEventId) // missed events are unknown or gone, the client must reload
+            subscriber.queue.offer(new Message(0, RESET, null));
+
+        for (long id = known ? Math.max(lastEventId + 1, oldestEventId) : oldestEventId; id < nextEventId; id++) {
+            Message message = ring[(int) (id % ring.length)];
+            if (subscriber.canSee(message.event())) subscriber.queue.offer(message);
+        }
+    }
+
+    private void offer(Subscriber subscriber, Message message) {
+        if (!subscriber.queue.offer(message)) { // too slow to keep up
+            drop(subscriber);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) return;
+
+        try {
+            dispatcher.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            drop(subscriber);
+        }
+    }
+
+    /**
+     * Send a subscriber's queued messages, on the dispatch pool
+     * @param subscriber Subscriber
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            Message message;
+            while ((message = subscriber.queue.poll()) != null) {
+                if (message.name() == null) subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                else if (message.event() == null) subscriber.emitter.send(SseEmitter.event().name(message.name()).data(""));
+                else subscriber.emitter.send(SseEmitter.event()
+                            .id(epoch + "-" + message.id())
+                            .name(message.name())
+                            .data(message.event(), MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber); // client went away
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        schedule(subscriber); // messages offered while the last poll was returning null
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) return;
+
+        dropped.incrementAndGet();
+        subscriber.queue.clear();
+        subscriber.emitter.complete();
+    }
+
+    /**
+     * Parse a Last-Event-ID sent back by a client
+     * @param lastEventId String epoch-sequence
+     * @return long sequence, -1 if absent, 0 if from another run or not recognised
+     */
+    private long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) return -1;
+
+        String prefix = epoch + "-";
+        if (!lastEventId.trim().startsWith(prefix)) return 0; // issued before a restart
+
+        try {
+            return Math.max(0, Long.parseLong(lastEventId.trim().substring(prefix.length())));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.exception.BadRequestException;
+import com.ga.showroom.model.dto.OrderExportRow;
+import com.ga.showroom.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static com.ga.showroom.service.UserService.getCurrentUser;
+
+/**
+ * Order export. Orders are read as flat DTO rows from a forward-only database cursor and written to the response
+ * as they arrive, so no entity graph is built and memory stays flat regardless of how many orders are exported.
+ */
+@Service
+public class OrderExportService {
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OrderExportService(OrderRepository orderRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Export orders conducted between start and end date, oldest first. Customers export their own orders only.
+     * @param startDate LocalDateTime
+     * @param endDate LocalDateTime
+     * @param csv boolean true for CSV with a header row, false for NDJSON
+     * @return StreamingResponseBody writing one OrderExportRow per line
+     */
+    public StreamingResponseBody exportOrders(LocalDateTime startDate, LocalDateTime endDate, boolean csv) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate))
+            throw new BadRequestException("startDate must be before endDate");
+
+        Long customerId = getCurrentUser().isCustomer() ? getCurrentUser().getId() : null; // Customer views own data only
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) writer.write(OrderExportRow.CSV_HEADER + "\n");
+
+            // the cursor only stays open inside a transaction, so the whole stream is consumed within one
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<OrderExportRow> rows = customerId == null
+                        ? orderRepository.streamExportRows(startDate, endDate)
+                        : orderRepository.streamExportRowsByCustomerId(startDate, endDate, customerId)) {
+                    rows.forEach(row -> write(writer, row, csv));
+                }
+            });
+
+            writer.flush();
+        };
+    }
+
+    private void write(Writer writer, OrderExportRow row, boolean csv) {
+        try {
+            writer.write(csv ? row.toCsv() : objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.event.OrderCreatedEvent;
+import com.ga.showroom.exception.AccessDeniedException;
+import com.ga.showroom.exception.BadRequestException;
+import com.ga.showroom.model.*;
+import com.ga.showroom.model.dto.OptionPrice;
+import com.ga.showroom.model.request.ImportOrderRow;
+import com.ga.showroom.model.response.ImportOrderResult;
+import com.ga.showroom.repository.CarModelRepository;
+import com.ga.showroom.repository.CarOptionRepository;
+import com.ga.showroom.repository.CarRepository;
+import com.ga.showroom.repository.OrderRepository;
+import com.ga.showroom.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import static com.ga.showroom.service.UserService.getCurrentUser;
+
+/**
+ * Bulk order import. The uploaded file is parsed line by line and imported in chunks, each chunk in its own
+ * transaction with its models, owners, options and duplicate checks resolved in bulk. A result line is streamed
+ * back per row, so memory stays flat regardless of the file's size.
+ */
+@Service
+public class OrderImportService {
+    Logger logger = Logger.getLogger(OrderImportService.class.getName());
+
+    private final OrderRepository orderRepository;
+    private final CarRepository carRepository;
+    private final CarOptionRepository carOptionRepository;
+    private final CarModelRepository carModelRepository;
+    private final UserRepository userRepository;
+    private final OptionService optionService;
+    private final SalesRollupService salesRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    /**
+     * A parsed row waiting for its chunk, or a row that could not be parsed
+     * @param line long line number in the file
+     * @param row ImportOrderRow, null when parsing failed
+     * @param error String parse error
+     */
+    private record PendingRow(long line, ImportOrderRow row, String error) {
+    }
+
+    @Autowired
+    public OrderImportService(OrderRepository orderRepository,
+                              CarRepository carRepository,
+                              CarOptionRepository carOptionRepository,
+                              CarModelRepository carModelRepository,
+                              UserRepository userRepository,
+                              OptionService optionService,
+                              SalesRollupService salesRollupService,
+                              ApplicationEventPublisher eventPublisher,
+                              TransactionTemplate transactionTemplate,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper,
+                              @Value("${order-import-chunk-size:100}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.carRepository = carRepository;
+        this.carOptionRepository = carOptionRepository;
+        this.carModelRepository = carModelRepository;
+        this.userRepository = userRepository;
+        this.optionService = optionService;
+        this.salesRollupService = salesRollupService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import orders from an NDJSON or CSV upload. The logged-in user is the salesman of every imported order.
+     * CSV files need a header row with the columns vinNumber, registrationNumber, insurancePolicy, modelId, ownerId
+     * and options, where options are option IDs separated by ';'.
+     * @param body InputStream uploaded file
+     * @param csv boolean true for CSV, false for NDJSON
+     * @return StreamingResponseBody writing one ImportOrderResult per line
+     */
+    public StreamingResponseBody importOrders(InputStream body, boolean csv) {
+        if (getCurrentUser().isCustomer())
+            throw new AccessDeniedException("You are not authorized to import orders. Please contact a salesman or admin.");
+
+        Long salesmanId = getCurrentUser().getId();
+
+        return outputStream -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            List<PendingRow> chunk = new ArrayList<>(chunkSize);
+            String[] header = null;
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+
+                if (csv && header == null) {
+                    header = line.trim().split("\\s*,\\s*");
+                    continue;
+                }
+
+                chunk.add(parse(lineNumber, line, header));
+
+                if (chunk.size() == chunkSize) {
+                    write(writer, importChunk(chunk, salesmanId));
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) write(writer, importChunk(chunk, salesmanId));
+            writer.flush();
+        };
+    }
+
+    /**
+     * Import a chunk in one transaction. If the transaction fails, retry its rows one per transaction
+     * so a single bad row only fails itself.
+     * @param chunk List of PendingRow
+     * @param salesmanId Long
+     * @return List of ImportOrderResult in line order
+     */
+    private List<ImportOrderResult> importChunk(List<PendingRow> chunk, Long salesmanId) {
+        List<ImportOrderResult> results = new ArrayList<>(chunk.size());
+        List<PendingRow> parsed = new ArrayList<>(chunk.size());
+
+        for (PendingRow pendingRow : chunk) {
+            if (pendingRow.row() == null) results.add(ImportOrderResult.failed(pendingRow.line(), pendingRow.error()));
+            else parsed.add(pendingRow);
+        }
+
+        try {
+            results.addAll(transactionTemplate.execute(status -> persist(parsed, salesmanId)));
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Import chunk failed, retrying its rows one by one", e);
+            for (PendingRow pendingRow : parsed) {
+                try {
+                    results.addAll(transactionTemplate.execute(status -> persist(List.of(pendingRow), salesmanId)));
+                } catch (RuntimeException rowException) {
+                    results.add(ImportOrderResult.failed(pendingRow.line(), rowException.getMessage()));
+                }
+            }
+        }
+
+        results.sort(Comparator.comparingLong(ImportOrderResult::line));
+        return results;
+    }
+
+    /**
+     * Validate rows against bulk-loaded reference data and persist the valid ones, inside the caller's transaction
+     * @param rows List of PendingRow
+     * @param salesmanId Long
+     * @return List of ImportOrderResult
+     */
+    private List<ImportOrderResult> persist(List<PendingRow> rows, Long salesmanId) {
+        List<ImportOrderRow> importRows = rows.stream().map(PendingRow::row).toList();
+
+        Map<Long, CarModel> carModels = carModelRepository.findAllById(collect(importRows, ImportOrderRow::modelId)).stream()
+                .collect(Collectors.toMap(CarModel::getId, carModel -> carModel));
+        Set<Long> owners = new HashSet<>(userRepository.findExistingIds(collect(importRows, ImportOrderRow::ownerId)));
+        Map<Long, OptionPrice> optionPrices = optionService.getOptionPrices(importRows.stream()
+                .filter(row -> row.options() != null)
+                .flatMap(row -> row.options().stream())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Set<String> vinNumbers = new HashSet<>(carRepository.findExistingVinNumbers(collect(importRows, ImportOrderRow::vinNumber)));
+        Set<String> registrationNumbers = new HashSet<>(carRepository.findExistingRegistrationNumbers(collect(importRows, ImportOrderRow::registrationNumber)));
+        Set<String> insurancePolicies = new HashSet<>(carRepository.findExistingInsurancePolicies(collect(importRows, ImportOrderRow::insurancePolicy)));
+
+        User salesman = userRepository.getReferenceById(salesmanId);
+        List<ImportOrderResult> results = new ArrayList<>(rows.size());
+        List<Order> orders = new ArrayList<>(rows.size());
+        List<PendingRow> created = new ArrayList<>(rows.size());
+        List<CarOption> carOptions = new ArrayList<>();
+
+        for (PendingRow pendingRow : rows) {
+            ImportOrderRow row = pendingRow.row();
+            CarModel carModel = carModels.get(row.modelId());
+            String error = validate(row, carModel, owners, optionPrices, vinNumbers, registrationNumbers, insurancePolicies);
+
+            if (error != null) {
+                results.add(ImportOrderResult.failed(pendingRow.line(), error));
+                continue;
+            }
+
+            // claim the unique values so later rows of the same chunk cannot reuse them
+            vinNumbers.add(row.vinNumber());
+            registrationNumbers.add(row.registrationNumber());
+            insurancePolicies.add(row.insurancePolicy());
+
+            User owner = userRepository.getReferenceById(row.ownerId());
+            Set<Long> optionIds = row.options() == null ? Set.of() : new LinkedHashSet<>(row.options());
+            Double totalPrice = carModel.getPrice();
+
+            Order order = new Order();
+            order.setCustomer(owner);
+            order.setSalesman(salesman);
+
+            Car car = new Car();
+            car.setVinNumber(row.vinNumber());
+            car.setRegistrationNumber(row.registrationNumber());
+            car.setInsurancePolicy(row.insurancePolicy());
+            car.setOwner(owner);
+            car.setCarModel(carModel);
+            car.setImage(carModel.getImage());
+            car.setOrder(order);
+            order.setCar(car);
+
+            for (Long optionId : optionIds) {
+                CarOption carOption = new CarOption();
+                carOption.setOption(optionService.getOptionReference(optionId));
+                carOption.setCar(car);
+                carOptions.add(carOption);
+                totalPrice += optionPrices.get(optionId).price();
+            }
+
+            order.setTotalPrice(totalPrice);
+            orders.add(order);
+            created.add(pendingRow);
+        }
+
+        orderRepository.saveAll(orders); // cars are persisted through the order's cascade
+        carOptionRepository.saveAll(carOptions);
+        entityManager.flush();
+        salesRollupService.addOrders(orders.stream().map(Order::getId).toList());
+        for (int i = 0; i < orders.size(); i++) { // pushed to order stream subscribers once the chunk commits
+            Order order = orders.get(i);
+            ImportOrderRow row = created.get(i).row();
+            eventPublisher.publishEvent(new OrderCreatedEvent(order.getId(), row.ownerId(), salesmanId, row.modelId(),
+                    order.getTotalPrice(), order.getCreatedAt()));
+        }
+        entityManager.clear(); // keep the persistence context from growing across chunks
+
+        for (int i = 0; i < created.size(); i++) {
+            results.add(ImportOrderResult.created(created.get(i).line(), orders.get(i).getId()));
+        }
+
+        return results;
+    }
+
+    private String validate(ImportOrderRow row, CarModel carModel, Set<Long> owners, Map<Long, OptionPrice> optionPrices,
+                            Set<String> vinNumbers, Set<String> registrationNumbers, Set<String> insurancePolicies) {
+        if (row.vinNumber() == null || row.registrationNumber() == null || row.insurancePolicy() == null)
+            return "vinNumber, registrationNumber and insurancePolicy are required";
+        if (carModel == null) return "Car model with ID " + row.modelId() + " not found";
+        if (!owners.contains(row.ownerId())) return "User with ID " + row.ownerId() + " (owner ID) not found";
+        if (vinNumbers.contains(row.vinNumber())) return "Car with vin " + row.vinNumber() + " already exists";
+        if (registrationNumbers.contains(row.registrationNumber()))
+            return "Car with registration number " + row.registrationNumber() + " already exists";
+        if (insurancePolicies.contains(row.insurancePolicy()))
+            return "Car with insurance policy " + row.insurancePolicy() + " already exists";
+
+        if (row.options() != null) {
+            for (Long optionId : row.options()) {
+                OptionPrice optionPrice = optionPrices.get(optionId);
+                if (optionPrice == null) return "No option found with ID " + optionId;
+                if (!carModel.getId().equals(optionPrice.carModelId()))
+                    return "Option ID " + optionId + " does not belong to car model " + carModel.getId();
+            }
+        }
+
+        return null;
+    }
+
+    private PendingRow parse(long lineNumber, String line, String[] header) {
+        try {
+            ImportOrderRow row = header == null ? objectMapper.readValue(line, ImportOrderRow.class) : parseCsv(line, header);
+            return new PendingRow(lineNumber, row, null);
+        } catch (RuntimeException e) {
+            return new PendingRow(lineNumber, null, "Invalid row: " + e.getMessage());
+        }
+    }
+
+    private ImportOrderRow parseCsv(String line, String[] header) {
+        String[] values = line.split("\\s*,\\s*", -1);
+        if (values.length != header.length)
+            throw new BadRequestException("expected " + header.length + " columns but found " + values.length);
+
+        Map<String, String> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) columns.put(header[i], values[i].trim());
+
+        String options = columns.getOrDefault("options", "");
+        return new ImportOrderRow(
+                emptyToNull(columns.get("vinNumber")),
+                emptyToNull(columns.get("registrationNumber")),
+                emptyToNull(columns.get("insurancePolicy")),
+                toLong(columns.get("modelId")),
+                toLong(columns.get("ownerId")),
+                options.isBlank() ? List.of() : Arrays.stream(options.split(";")).map(String::trim).map(Long::valueOf).toList());
+    }
+
+    private void write(Writer writer, List<ImportOrderResult> results) throws IOException {
+        for (ImportOrderResult result : results) {
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.write('\n');
+        }
+        writer.flush(); // let the client see each chunk's results as soon as it commits
+    }
+
+    private static <T> Set<T> collect(List<ImportOrderRow> rows, Function<ImportOrderRow, T> field) {
+        return rows.stream().map(field).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static Long toLong(String value) {
+        return value == null || value.isEmpty() ? null : Long.valueOf(value);
+    }
+}
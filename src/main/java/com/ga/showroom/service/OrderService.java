@@ -1,21 +1,30 @@
 package com.ga.showroom.service;
 
+import com.ga.showroom.event.OrderCreatedEvent;
 import com.ga.showroom.exception.AccessDeniedException;
+import com.ga.showroom.exception.BadRequestException;
 import com.ga.showroom.exception.InformationNotFoundException;
 import com.ga.showroom.model.*;
-import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.dto.OrderBucketTotals;
+import com.ga.showroom.model.response.CursorPage;
+import com.ga.showroom.model.response.OrderBucket;
+import com.ga.showroom.model.response.Quote;
 import com.ga.showroom.repository.OrderRepository;
 import com.ga.showroom.repository.UserRepository;
+import com.ga.showroom.utility.Cursor;
 import com.ga.showroom.utility.Uploads;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
-import static com.ga.showroom.service.UserService.getCurrentLoggedInUser;
+import static com.ga.showroom.service.UserService.getCurrentUser;
 
 @Service
 public class OrderService {
@@ -25,7 +34,12 @@ public class OrderService {
     CarModelService carModelService;
     CarOptionService carOptionService;
     CarService carService;
+    PriceEngine priceEngine;
+    SalesRollupService salesRollupService;
     Uploads uploads;
+    ApplicationEventPublisher eventPublisher;
+
+    private static final Set<String> BUCKET_UNITS = Set.of("day", "week", "month");
 
     @Autowired
     public OrderService(OrderRepository orderRepository,
@@ -34,14 +48,20 @@ public class OrderService {
                         CarModelService carModelService,
                         CarOptionService carOptionService,
                         CarService carService,
-                        Uploads uploads) {
+                        PriceEngine priceEngine,
+                        SalesRollupService salesRollupService,
+                        Uploads uploads,
+                        ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.optionService = optionService;
         this.carModelService = carModelService;
         this.carOptionService = carOptionService;
         this.carService = carService;
+        this.priceEngine = priceEngine;
+        this.salesRollupService = salesRollupService;
         this.uploads = uploads;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -53,8 +73,7 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new InformationNotFoundException("Order " + orderId + " not found"));
 
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER) // not owner customer not allowed to view data
-                && !order.getCustomer().getId().equals(getCurrentLoggedInUser().getId()))
+        if (!getCurrentUser().canView(order.getCustomer())) // not owner customer not allowed to view data
             throw new AccessDeniedException("You are not authorized to view this order's information. " +
                     "Please contact a salesman or the order's customer.");
 
@@ -62,26 +81,72 @@ public class OrderService {
     }
 
     /**
-     * Get all orders. Gets all in database if admin, otherwise user's own orders only.
-     * @return List of Order
+     * Get a page of orders, newest first. Gets all in database if admin, otherwise user's own orders only.
+     * @param cursor String next cursor of the previous page, null for the first page
+     * @param limit Integer page size, at most 200
+     * @return CursorPage of Order
      */
-    public List<Order> getAll() {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // Customer views own data only
-            return orderRepository.findAllByCustomerId(getCurrentLoggedInUser().getId());
+    public CursorPage<Order> getAll(String cursor, Integer limit) {
+        Cursor after = Cursor.decode(cursor);
+        int pageSize = CursorPage.pageSize(limit);
+
+        List<Order> orders = getCurrentUser().isCustomer() // Customer views own data only
+                ? orderRepository.findPageByCustomerId(getCurrentUser().getId(), after.createdAt(), after.id(), CursorPage.fetchLimit(pageSize))
+                : orderRepository.findPage(after.createdAt(), after.id(), CursorPage.fetchLimit(pageSize));
 
-        return orderRepository.findAll();
+        return CursorPage.of(orders, pageSize, Order::getCreatedAt, Order::getId);
     }
 
     /**
-     * Get all orders conducted on a certain date. Gets all in database if admin, otherwise user's own orders only.
-     * @param orderDate LocalDateTime
+     * Get all orders conducted on a certain calendar day. Gets all in database if admin, otherwise user's own orders only.
+     * @param orderDate LocalDateTime any time on the day, only its date is used
      * @return List of Order
      */
     public List<Order> getByOrderDate(LocalDateTime orderDate) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // Customer views own data only
-            return orderRepository.findAllByCreatedAtAndCustomerId(orderDate, getCurrentLoggedInUser().getId());
+        LocalDateTime dayStart = orderDate.toLocalDate().atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
 
-        return orderRepository.findAllByCreatedAt(orderDate);
+        if (getCurrentUser().isCustomer()) // Customer views own data only
+            return orderRepository.findAllByCreatedAtInRangeAndCustomerId(dayStart, dayEnd, getCurrentUser().getId());
+
+        return orderRepository.findAllByCreatedAtInRange(dayStart, dayEnd);
+    }
+
+    /**
+     * Count and total orders conducted in [start, end) per day, week or month. Customers see their own orders only,
+     * staff may narrow the buckets to one customer or one salesman.
+     * @param unit String day, week or month
+     * @param start LocalDateTime inclusive
+     * @param end LocalDateTime exclusive
+     * @param customerId Long optional
+     * @param salesmanId Long optional
+     * @return List of OrderBucket, oldest first, empty buckets omitted
+     */
+    public List<OrderBucket> getOrderBuckets(String unit, LocalDateTime start, LocalDateTime end, Long customerId, Long salesmanId) {
+        if (unit == null || !BUCKET_UNITS.contains(unit.toLowerCase()))
+            throw new BadRequestException("unit must be day, week or month");
+
+        if (start == null || end == null || !start.isBefore(end))
+            throw new BadRequestException("startDate must be before endDate");
+
+        if (customerId != null && salesmanId != null)
+            throw new BadRequestException("Filter by either customerId or salesmanId, not both");
+
+        String truncUnit = unit.toLowerCase();
+        List<OrderBucketTotals> totals;
+
+        if (getCurrentUser().isCustomer()) // Customer views own data only
+            totals = orderRepository.sumByBucketAndCustomerId(truncUnit, start, end, getCurrentUser().getId());
+        else if (customerId != null)
+            totals = orderRepository.sumByBucketAndCustomerId(truncUnit, start, end, customerId);
+        else if (salesmanId != null)
+            totals = orderRepository.sumByBucketAndSalesmanId(truncUnit, start, end, salesmanId);
+        else
+            totals = orderRepository.sumByBucket(truncUnit, start, end);
+
+        return totals.stream()
+                .map(bucket -> new OrderBucket(LocalDate.parse(bucket.getBucket()), bucket.getOrders(), bucket.getRevenue()))
+                .toList();
     }
 
     /**
@@ -93,8 +158,7 @@ public class OrderService {
         if (!userRepository.existsById(customerId))
             throw new InformationNotFoundException("Customer with ID " + customerId + " not found");
 
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER) // not owner customer not allowed to view data
-                && !customerId.equals(getCurrentLoggedInUser().getId()))
+        if (!getCurrentUser().canView(customerId)) // not owner customer not allowed to view data
             throw new AccessDeniedException("You are not authorized to view this customer's order history. " +
                     "Please contact a salesman or the customer.");
 
@@ -107,7 +171,7 @@ public class OrderService {
      * @return List of Order
      */
     public List<Order> getBySalesmanId(Long salesmanId) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // customer not allowed to view data
+        if (getCurrentUser().isCustomer()) // customer not allowed to view data
            throw new AccessDeniedException("You are not authorized to view this data. Please contact a salesman or admin.");
 
         if (!userRepository.existsById(salesmanId))
@@ -117,16 +181,24 @@ public class OrderService {
     }
 
     /**
-     * Get all orders conducted between start and end date. Admin sees all orders, normal user sees their own orders only.
+     * Get a page of orders conducted between start and end date, newest first. Admin sees all orders, normal user sees their own orders only.
      * @param orderDateStart LocalDateTime
      * @param orderDateEnd LocalDateTime
-     * @return List of Order
+     * @param cursor String next cursor of the previous page, null for the first page
+     * @param limit Integer page size, at most 200
+     * @return CursorPage of Order
      */
-    public List<Order> getByOrderDateBetween(LocalDateTime orderDateStart, LocalDateTime orderDateEnd) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // Customer views own data only
-            return orderRepository.findAllByCreatedAtBetweenAndCustomerId(orderDateStart, orderDateEnd, getCurrentLoggedInUser().getId());
+    public CursorPage<Order> getByOrderDateBetween(LocalDateTime orderDateStart, LocalDateTime orderDateEnd, String cursor, Integer limit) {
+        Cursor after = Cursor.decode(cursor);
+        int pageSize = CursorPage.pageSize(limit);
+
+        List<Order> orders = getCurrentUser().isCustomer() // Customer views own data only
+                ? orderRepository.findPageByCreatedAtBetweenAndCustomerId(orderDateStart, orderDateEnd, getCurrentUser().getId(),
+                        after.createdAt(), after.id(), CursorPage.fetchLimit(pageSize))
+                : orderRepository.findPageByCreatedAtBetween(orderDateStart, orderDateEnd,
+                        after.createdAt(), after.id(), CursorPage.fetchLimit(pageSize));
 
-        return orderRepository.findAllByCreatedAtBetween(orderDateStart, orderDateEnd);
+        return CursorPage.of(orders, pageSize, Order::getCreatedAt, Order::getId);
     }
 
     /**
@@ -139,7 +211,7 @@ public class OrderService {
      */
     @Transactional(rollbackFor = Exception.class)
     public Order createOrder(Car car, Long carModelId, Long ownerId, List<Long> options) {
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)) // customer not allowed to view data
+        if (getCurrentUser().isCustomer()) // customer not allowed to view data
             throw new AccessDeniedException("You are not authorized to create new orders. Please contact a salesman or admin.");
 
         Order order = new Order();
@@ -148,7 +220,6 @@ public class OrderService {
         CarModel carModel = carModelService.getCarModelById(carModelId);
         User owner = userRepository.findById(ownerId)
                 .orElseThrow(() -> new InformationNotFoundException("User with ID " + ownerId + " (owner ID) not found"));
-        Double totalPrice = carModel.getPrice();
 
         //TODO: Generate and set car's image to car (temporarily using stock model image)
 
@@ -161,35 +232,30 @@ public class OrderService {
                 carOptions,
                 order);
 
-        // (Loop) Create car's options, as many added in the list:
-        for (Long option : options) {
-            Option optionObj = optionService.getOptionById(option);
+        // Price the configuration from the in-memory price tables, options the model does not offer are skipped with a message printout
+        Quote quote = priceEngine.quote(carModel.getId(), options);
+        for (Long option : quote.unavailableOptions())
+            System.out.println("Option ID " + option + " does not exist for car model " + carModel.getId() + ". Skipping.");
 
-            if (optionObj == null) {
-                System.out.println("No option found with ID " + option + ". Skipping.");
-                continue;
-            }
-
-            if (!optionObj.getCarModel().equals(carModel)) { // Check the option exists for the chosen car model, otherwise skip with a message printout
-                System.out.println("Option ID " + option + " does not belong to car model " + carModel.getId() + ". Skipping.");
-                continue;
-            }
-
-            // Create CarOption
-            CarOption carOption = carOptionService.createCarOption(optionObj.getId(), car.getId());
-            carOptions.add(carOption);
-            totalPrice += carOption.getOption().getPrice();
-        }
+        // Create car's options in one batch
+        carOptions.addAll(carOptionService.createCarOptions(newCar, quote.options().keySet()));
 
         // Set car to order
         order.setCar(newCar);
         // Set car's owner as order customer
         order.setCustomer(newCar.getOwner());
-        // set logged-in user as order salesman
-        order.setSalesman(getCurrentLoggedInUser());
-        //calculate total price based on car's base price + car's list of options, and set it to order
-        order.setTotalPrice(totalPrice);
+        // set logged-in user as order salesman (reference only, the principal may be built from token claims)
+        order.setSalesman(userRepository.getReferenceById(getCurrentUser().getId()));
+        //total price is the car's base price + car's list of options, as quoted
+        order.setTotalPrice(quote.totalPrice());
+        orderRepository.save(order);
 
-        return orderRepository.save(order);
+        // Count the order in its day, salesman and model rollup within this transaction
+        salesRollupService.addOrders(List.of(order.getId()));
+        // Announce the order to stream subscribers once this transaction commits
+        eventPublisher.publishEvent(new OrderCreatedEvent(order.getId(), owner.getId(), getCurrentUser().getId(),
+                carModel.getId(), order.getTotalPrice(), order.getCreatedAt()));
+
+        return order;
     }
 }
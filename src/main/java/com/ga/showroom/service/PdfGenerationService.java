@@ -1,41 +1,39 @@
 package com.ga.showroom.service;
 
-import com.ga.showroom.exception.AccessDeniedException;
 import com.ga.showroom.exception.InformationNotFoundException;
-import com.ga.showroom.model.*;
-import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.dto.ReceiptLine;
+import com.ga.showroom.model.dto.ReceiptView;
+import com.ga.showroom.repository.CarOptionRepository;
+import com.ga.showroom.repository.OrderRepository;
 import com.lowagie.text.*;
 import com.lowagie.text.Font;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.time.format.DateTimeFormatter;
 
-import static com.ga.showroom.service.UserService.getCurrentLoggedInUser;
-
 @Service
 public class PdfGenerationService {
 
-    private final JavaMailSender mailSender;
-    private final OrderService orderService;
+    private final EmailOutboxService emailOutboxService;
+    private final OrderRepository orderRepository;
+    private final CarOptionRepository carOptionRepository;
     private final Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
     private final Font headerFont = new Font(Font.HELVETICA, 10, Font.BOLD);
     private final Font textFont = new Font(Font.HELVETICA, 10, Font.NORMAL);
     Color mainColor = new Color(190, 220, 216);
 
-    public PdfGenerationService(JavaMailSender mailSender,  OrderService orderService) {
+    public PdfGenerationService(EmailOutboxService emailOutboxService,
+                                OrderRepository orderRepository,
+                                CarOptionRepository carOptionRepository) {
 
-        this.mailSender = mailSender;
-        this.orderService = orderService;
+        this.emailOutboxService = emailOutboxService;
+        this.orderRepository = orderRepository;
+        this.carOptionRepository = carOptionRepository;
     }
 
     PdfPCell headerInline(String input) {
@@ -92,13 +90,24 @@ public class PdfGenerationService {
         return cell;
     }
 
-    public String generateOrderReceipt(Long orderId) throws MessagingException {
-        if(!getCurrentLoggedInUser().getRole().equals(Role.ADMIN) && !getCurrentLoggedInUser().getRole().equals(Role.SALESMAN))
-            throw new AccessDeniedException("You are not authorized to send order receipt. Please contact a salesman or admin.");
+    /**
+     * Load everything an order's receipt shows in two statements, one for the order and one for its options
+     * @param orderId Long
+     * @return ReceiptView
+     */
+    public ReceiptView loadReceiptView(Long orderId) {
+        ReceiptView receipt = orderRepository.findReceiptView(orderId)
+                .orElseThrow(() -> new InformationNotFoundException("Order with ID " + orderId + " does not exist"));
 
-        Order order = orderService.getById(orderId);
-        if (order == null) throw new InformationNotFoundException("Order with ID" + orderId + " does not exist");
+        return receipt.withLines(carOptionRepository.findReceiptLines(orderId));
+    }
 
+    /**
+     * Render an order's receipt PDF. Callers check access.
+     * @param receipt ReceiptView
+     * @return byte[] PDF document
+     */
+    public byte[] renderOrderReceipt(ReceiptView receipt) {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         Document document = new Document(PageSize.A4, 36, 36, 48, 36);
 
@@ -130,8 +139,8 @@ public class PdfGenerationService {
             // RIGHT: Date & time
             PdfPCell rightCell = new PdfPCell(
                     new Phrase(
-                            order.getCreatedAt().toLocalDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")) + "\n" +
-                                    order.getCreatedAt().toLocalTime().format(DateTimeFormatter.ofPattern("hh:mm a")),
+                            receipt.createdAt().toLocalDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")) + "\n" +
+                                    receipt.createdAt().toLocalTime().format(DateTimeFormatter.ofPattern("hh:mm a")),
                             textFont
                     )
             );
@@ -161,19 +170,19 @@ public class PdfGenerationService {
             ownerTable.setWidths(new float[]{30, 70});
 
             ownerTable.addCell(headerInline("Name"));
-            ownerTable.addCell(dataInline(order.getCustomer().getUserProfile().getFirstName() +" " + order.getCustomer().getUserProfile().getLastName()));
+            ownerTable.addCell(dataInline(receipt.firstName() + " " + receipt.lastName()));
 
             ownerTable.addCell(headerInline("Email"));
-            ownerTable.addCell(dataInline(order.getCustomer().getEmailAddress()));
+            ownerTable.addCell(dataInline(receipt.emailAddress()));
 
             ownerTable.addCell(headerInline("phone"));
-            ownerTable.addCell(dataInline(order.getCustomer().getUserProfile().getPhoneNumber().toString()));
+            ownerTable.addCell(dataInline(String.valueOf(receipt.phoneNumber())));
 
             ownerTable.addCell(headerInline("Address"));
-            ownerTable.addCell(dataInline(order.getCustomer().getUserProfile().getHomeAddress()));
+            ownerTable.addCell(dataInline(receipt.homeAddress()));
 
             ownerTable.addCell(headerInline("CPR"));
-            ownerTable.addCell(dataInline(order.getCustomer().getUserProfile().getCpr().toString()));
+            ownerTable.addCell(dataInline(String.valueOf(receipt.cpr())));
 
 
             PdfPTable carTable = new PdfPTable(2);
@@ -181,19 +190,19 @@ public class PdfGenerationService {
             carTable.setWidths(new float[]{40, 60});
 
             carTable.addCell(headerInline("Car model"));
-            carTable.addCell(dataInline(order.getCar().getCarModel().getName() + " " + order.getCar().getCarModel().getMakeYear()));
+            carTable.addCell(dataInline(receipt.carModelName() + " " + receipt.makeYear()));
 
             carTable.addCell(headerInline("Manufacturer"));
-            carTable.addCell(dataInline(order.getCar().getCarModel().getManufacturer()));
+            carTable.addCell(dataInline(receipt.manufacturer()));
 
             carTable.addCell(headerInline("Vehicle number"));
-            carTable.addCell(dataInline(order.getCar().getVinNumber()));
+            carTable.addCell(dataInline(receipt.vinNumber()));
 
             carTable.addCell(headerInline("Registration number"));
-            carTable.addCell(dataInline(order.getCar().getRegistrationNumber()));
+            carTable.addCell(dataInline(receipt.registrationNumber()));
 
             carTable.addCell(headerInline("Insurance policy"));
-            carTable.addCell(dataInline(order.getCar().getInsurancePolicy()));
+            carTable.addCell(dataInline(receipt.insurancePolicy()));
 
             PdfPCell leftInfoCell = new PdfPCell(ownerTable);
             leftInfoCell.setBorder(Rectangle.NO_BORDER);
@@ -225,17 +234,17 @@ public class PdfGenerationService {
 
             DetailsTable.addCell(data("Original Car price"));
             DetailsTable.addCell(data(""));
-            DetailsTable.addCell(dataRight(order.getCar().getCarModel().getPrice().toString()));
+            DetailsTable.addCell(dataRight(String.valueOf(receipt.carModelPrice())));
 
-            for(CarOption carOption: order.getCar().getCarOptions()){
-                DetailsTable.addCell(data(carOption.getOption().getOptionCategory().getName()));
-                DetailsTable.addCell(data(carOption.getOption().getName()));
-                DetailsTable.addCell(dataRight(carOption.getOption().getPrice().toString()));
+            for(ReceiptLine line: receipt.lines()){
+                DetailsTable.addCell(data(line.category()));
+                DetailsTable.addCell(data(line.option()));
+                DetailsTable.addCell(dataRight(String.valueOf(line.price())));
             }
 
             DetailsTable.addCell(totalData(""));
             DetailsTable.addCell(totalData("Total Price"));
-            DetailsTable.addCell(totalData(order.getTotalPrice().toString()));
+            DetailsTable.addCell(totalData(String.valueOf(receipt.totalPrice())));
 
             document.add(DetailsTable);
 
@@ -248,26 +257,24 @@ public class PdfGenerationService {
             }
         }
 
-        byte[] pdfBytes = out.toByteArray();
-
-        // Send email with PDF attachment
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper =
-                new MimeMessageHelper(message, true);
-
-        helper.setTo(order.getCustomer().getEmailAddress());
-        helper.setFrom("no-reply@showroom.com");
-        helper.setSubject("Ferrari Order Receipt");
-        helper.setText(
-                "Dear " + order.getCustomer().getUserProfile().getFirstName() + " " + order.getCustomer().getUserProfile().getLastName()+",\n\nPlease find attached your receipt.\n\nRegards,\nFerrari Team"
-        );
+        return out.toByteArray();
+    }
 
-        helper.addAttachment(
+    /**
+     * Queue the receipt email with its PDF attachment, delivered by the outbox dispatcher. Joins the caller's transaction.
+     * @param receipt ReceiptView
+     * @param pdfBytes byte[] rendered receipt
+     * @return String confirmation message
+     */
+    public String mailOrderReceipt(ReceiptView receipt, byte[] pdfBytes) {
+        emailOutboxService.enqueue(
+                receipt.emailAddress(),
+                "Ferrari Order Receipt",
+                "Dear " + receipt.firstName() + " " + receipt.lastName()+",\n\nPlease find attached your receipt.\n\nRegards,\nFerrari Team",
                 "order-receipt.pdf",
-                new ByteArrayResource(pdfBytes)
+                pdfBytes
         );
 
-        mailSender.send(message);
-        return "Email sent to " + order.getCustomer().getEmailAddress();
+        return "Receipt email queued for " + receipt.emailAddress();
     }
 }
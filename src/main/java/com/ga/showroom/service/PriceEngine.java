@@ -0,0 +1,129 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.event.CatalogChangedEvent;
+import com.ga.showroom.exception.InformationNotFoundException;
+import com.ga.showroom.model.dto.ModelPrice;
+import com.ga.showroom.model.dto.OptionPrice;
+import com.ga.showroom.model.response.Quote;
+import com.ga.showroom.repository.CarModelRepository;
+import com.ga.showroom.repository.OptionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Prices car model configurations from compiled, in-memory price tables. Tables are built at startup and
+ * rebuilt for a model after its price or options change, so quoting never touches the database.
+ */
+@Service
+public class PriceEngine {
+    private final CarModelRepository carModelRepository;
+    private final OptionRepository optionRepository;
+
+    private volatile Map<Long, PriceTable> priceTables = Map.of();
+    private long rebuilds;
+    private LocalDateTime lastRebuildAt;
+
+    @Autowired
+    public PriceEngine(CarModelRepository carModelRepository, OptionRepository optionRepository) {
+        this.carModelRepository = carModelRepository;
+        this.optionRepository = optionRepository;
+    }
+
+    /**
+     * Price a configuration. Requested options that the model does not offer are listed as unavailable
+     * and left out of the total.
+     * @param carModelId Long
+     * @param optionIds Collection of option IDs, may be null
+     * @return Quote
+     */
+    public Quote quote(Long carModelId, Collection<Long> optionIds) {
+        PriceTable priceTable = carModelId == null ? null : priceTables.get(carModelId);
+        if (priceTable == null) throw new InformationNotFoundException("Car model with ID " + carModelId + " not found");
+
+        Map<Long, Double> options = new LinkedHashMap<>();
+        List<Long> unavailableOptions = new ArrayList<>();
+        double totalPrice = priceTable.basePrice();
+
+        if (optionIds != null) {
+            for (Long optionId : new LinkedHashSet<>(optionIds)) {
+                int index = optionId == null ? -1 : priceTable.indexOf(optionId);
+
+                if (index < 0) {
+                    unavailableOptions.add(optionId);
+                    continue;
+                }
+
+                options.put(optionId, priceTable.priceAt(index));
+                totalPrice += priceTable.priceAt(index);
+            }
+        }
+
+        return new Quote(carModelId, priceTable.basePrice(), options, unavailableOptions, totalPrice);
+    }
+
+    /**
+     * Build every model's price table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildAll() {
+        Map<Long, List<OptionPrice>> optionsByModel = optionRepository.findAllOptionPrices().stream()
+                .filter(optionPrice -> optionPrice.carModelId() != null)
+                .collect(Collectors.groupingBy(OptionPrice::carModelId));
+
+        Map<Long, PriceTable> tables = new HashMap<>();
+        for (ModelPrice modelPrice : carModelRepository.findAllModelPrices()) {
+            tables.put(modelPrice.id(), new PriceTable(modelPrice.price(), optionsByModel.getOrDefault(modelPrice.id(), List.of())));
+        }
+
+        publish(tables);
+    }
+
+    /**
+     * Rebuild the changed model's price table once the change is committed
+     * @param event CatalogChangedEvent
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.carModelId() == null) {
+            rebuildAll();
+            return;
+        }
+
+        Long carModelId = event.carModelId();
+        Map<Long, PriceTable> tables = new HashMap<>(priceTables);
+        Optional<ModelPrice> modelPrice = carModelRepository.findModelPriceById(carModelId);
+
+        if (modelPrice.isPresent())
+            tables.put(carModelId, new PriceTable(modelPrice.get().price(), optionRepository.findOptionPricesByCarModelId(carModelId)));
+        else
+            tables.remove(carModelId); // model deleted
+
+        publish(tables);
+    }
+
+    /**
+     * Get the price engine's counters
+     * @return Map of counter name to value
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("carModels", priceTables.size());
+        stats.put("options", priceTables.values().stream().mapToInt(PriceTable::size).sum());
+        stats.put("rebuilds", rebuilds);
+        stats.put("lastRebuildAt", lastRebuildAt);
+        return stats;
+    }
+
+    private void publish(Map<Long, PriceTable> tables) {
+        priceTables = Map.copyOf(tables);
+        rebuilds++;
+        lastRebuildAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.model.dto.OptionPrice;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable prices of one car model: its base price and its options' prices in parallel primitive arrays,
+ * sorted by option ID for binary search.
+ */
+public final class PriceTable {
+    private final double basePrice;
+    private final long[] optionIds;
+    private final double[] optionPrices;
+
+    /**
+     * Compile a price table
+     * @param basePrice Double car model's price, null counts as 0
+     * @param options List of OptionPrice belonging to the model, null prices count as 0
+     */
+    public PriceTable(Double basePrice, List<OptionPrice> options) {
+        List<OptionPrice> sorted = options.stream().sorted(Comparator.comparing(OptionPrice::id)).toList();
+
+        this.basePrice = basePrice == null ? 0 : basePrice;
+        this.optionIds = new long[sorted.size()];
+        this.optionPrices = new double[sorted.size()];
+
+        for (int i = 0; i < sorted.size(); i++) {
+            optionIds[i] = sorted.get(i).id();
+            optionPrices[i] = sorted.get(i).price() == null ? 0 : sorted.get(i).price();
+        }
+    }
+
+    public double basePrice() {
+        return basePrice;
+    }
+
+    /**
+     * Find an option's slot
+     * @param optionId long
+     * @return int slot index, negative if the model has no such option
+     */
+    public int indexOf(long optionId) {
+        return Arrays.binarySearch(optionIds, optionId);
+    }
+
+    public double priceAt(int index) {
+        return optionPrices[index];
+    }
+
+    public int size() {
+        return optionIds.length;
+    }
+}
@@ -0,0 +1,201 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.exception.AccessDeniedException;
+import com.ga.showroom.exception.BadRequestException;
+import com.ga.showroom.model.dto.ReceiptVersion;
+import com.ga.showroom.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static com.ga.showroom.service.UserService.getCurrentUser;
+
+/**
+ * Bulk receipt archive for audits. Receipts of a date range are rendered in parallel on a fixed pool, without
+ * emailing anyone, and written into a streamed ZIP as they complete. Each archive keeps at most a small window
+ * of receipts in flight, so memory follows the pool size rather than the number of orders.
+ */
+@Service
+public class ReceiptArchiveService {
+    Logger logger = Logger.getLogger(ReceiptArchiveService.class.getName());
+
+    private final OrderRepository orderRepository;
+    private final PdfGenerationService pdfGenerationService;
+    private final ReceiptCacheService receiptCacheService;
+    private final ThreadPoolExecutor executor;
+    private final int window;
+    private final int pageSize;
+    private final AtomicLong archives = new AtomicLong();
+    private final AtomicLong receipts = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * A finished receipt, or the reason it could not be rendered
+     * @param orderId Long
+     * @param pdfBytes byte[], null on failure
+     * @param error String, null on success
+     */
+    private record ArchivedReceipt(Long orderId, byte[] pdfBytes, String error) {
+    }
+
+    @Autowired
+    public ReceiptArchiveService(OrderRepository orderRepository,
+                                 PdfGenerationService pdfGenerationService,
+                                 ReceiptCacheService receiptCacheService,
+                                 @Value("${receipt-archive-threads:0}") int threads,
+                                 @Value("${receipt-archive-queue-capacity:64}") int queueCapacity,
+                                 @Value("${receipt-archive-page-size:500}") int pageSize) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.orderRepository = orderRepository;
+        this.pdfGenerationService = pdfGenerationService;
+        this.receiptCacheService = receiptCacheService;
+        this.window = poolSize * 2;
+        this.pageSize = pageSize;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "receipt-archive-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()); // concurrent archives slow down instead of failing
+    }
+
+    /**
+     * Stream a ZIP of the receipts of every order created between two days, inclusive. Admin only.
+     * Receipts that fail to render are listed in an errors.txt entry at the end.
+     * @param startDate LocalDate
+     * @param endDate LocalDate
+     * @return StreamingResponseBody writing the ZIP
+     */
+    public StreamingResponseBody archiveReceipts(LocalDate startDate, LocalDate endDate) {
+        if (!getCurrentUser().isAdmin())
+            throw new AccessDeniedException("Only an admin is authorized to download receipt archives.");
+
+        if (startDate == null || endDate == null || endDate.isBefore(startDate))
+            throw new BadRequestException("startDate must not be after endDate");
+
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+
+        return outputStream -> {
+            archives.incrementAndGet();
+            ZipOutputStream zip = new ZipOutputStream(outputStream);
+            zip.setLevel(Deflater.BEST_SPEED); // PDFs are already compressed
+            CompletionService<ArchivedReceipt> completionService = new ExecutorCompletionService<>(executor);
+            Set<Future<ArchivedReceipt>> inFlight = new HashSet<>();
+            Map<Long, String> errors = new LinkedHashMap<>();
+
+            try {
+                List<Long> orderIds;
+                long afterId = 0;
+
+                do {
+                    orderIds = orderRepository.findIdPageByCreatedAtInRange(start, end, afterId, Limit.of(pageSize));
+
+                    for (Long orderId : orderIds) {
+                        if (inFlight.size() >= window) writeNext(zip, completionService, inFlight, errors);
+                        inFlight.add(completionService.submit(() -> render(orderId)));
+                    }
+
+                    if (!orderIds.isEmpty()) afterId = orderIds.get(orderIds.size() - 1);
+                } while (orderIds.size() == pageSize);
+
+                while (!inFlight.isEmpty()) writeNext(zip, completionService, inFlight, errors);
+
+                if (!errors.isEmpty()) {
+                    StringBuilder errorList = new StringBuilder();
+                    errors.forEach((orderId, error) -> errorList.append("Order ").append(orderId).append(": ").append(error).append('\n'));
+
+                    zip.putNextEntry(new ZipEntry("errors.txt"));
+                    zip.write(errorList.toString().getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                }
+
+                zip.finish();
+            } finally {
+                for (Future<ArchivedReceipt> future : inFlight) future.cancel(true); // client went away
+            }
+        };
+    }
+
+    /**
+     * Receipt archive pool counters
+     * @return Map of counter name to value
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("archives", archives.get());
+        stats.put("receipts", receipts.get());
+        stats.put("failed", failures.get());
+        return stats;
+    }
+
+    /**
+     * Render one receipt, on the archive pool. Reuses the stored copy of the order's current version when present.
+     * @param orderId Long
+     * @return ArchivedReceipt
+     */
+    private ArchivedReceipt render(Long orderId) {
+        try {
+            ReceiptVersion version = receiptCacheService.getCurrentVersion(orderId);
+            return new ArchivedReceipt(orderId, receiptCacheService.getReceiptBytes(version, pdfGenerationService.loadReceiptView(orderId)), null);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Archived receipt for order " + orderId + " failed", e);
+            return new ArchivedReceipt(orderId, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Wait for the next finished receipt and write it as a ZIP entry
+     */
+    private void writeNext(ZipOutputStream zip, CompletionService<ArchivedReceipt> completionService,
+                           Set<Future<ArchivedReceipt>> inFlight, Map<Long, String> errors) throws IOException {
+        ArchivedReceipt receipt;
+
+        try {
+            Future<ArchivedReceipt> future = completionService.take();
+            inFlight.remove(future);
+            receipt = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Receipt archive interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Receipt rendering failed", e.getCause());
+        }
+
+        if (receipt.error() != null) {
+            failures.incrementAndGet();
+            errors.put(receipt.orderId(), receipt.error());
+            return;
+        }
+
+        zip.putNextEntry(new ZipEntry("receipt-" + receipt.orderId() + ".pdf"));
+        zip.write(receipt.pdfBytes());
+        zip.closeEntry();
+        zip.flush(); // send each receipt as soon as it is written
+        receipts.incrementAndGet();
+    }
+}
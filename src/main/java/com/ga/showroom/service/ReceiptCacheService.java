@@ -0,0 +1,223 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.exception.AccessDeniedException;
+import com.ga.showroom.exception.InformationNotFoundException;
+import com.ga.showroom.model.dto.ReceiptVersion;
+import com.ga.showroom.model.dto.ReceiptView;
+import com.ga.showroom.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.ga.showroom.service.UserService.getCurrentUser;
+
+/**
+ * Rendered receipt PDFs stored on disk, one file per receipt version. A version is the order's ID, the latest
+ * change to the order, car, car model, customer profile or options it shows, and its option count, so a receipt
+ * is only re-rendered after something on it changes, and the version doubles as the download's strong ETag.
+ */
+@Service
+public class ReceiptCacheService {
+    Logger logger = Logger.getLogger(ReceiptCacheService.class.getName());
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSSSSSSSS");
+
+    private final PdfGenerationService pdfGenerationService;
+    private final OrderRepository orderRepository;
+    private final Path cacheDir;
+    private final Map<String, CompletableFuture<Path>> rendering = new ConcurrentHashMap<>(); // version to its render in progress
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong renders = new AtomicLong();
+
+    /**
+     * A stored receipt ready to serve
+     * @param orderId Long
+     * @param eTag String strong ETag, quoted
+     * @param path Path PDF file
+     */
+    public record ReceiptFile(Long orderId, String eTag, Path path) {
+    }
+
+    @Autowired
+    public ReceiptCacheService(PdfGenerationService pdfGenerationService,
+                               OrderRepository orderRepository,
+                               @Value("${receipt-cache-dir:uploads/receipts}") String cacheDir) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.orderRepository = orderRepository;
+        this.cacheDir = Path.of(cacheDir);
+    }
+
+    /**
+     * Get the strong ETag of an order's current receipt, checking the logged-in user may view it.
+     * Only reads the order's version, so a matching If-None-Match costs one small query.
+     * @param orderId Long
+     * @return String quoted ETag
+     */
+    public String getReceiptETag(Long orderId) {
+        return eTag(getVersion(orderId));
+    }
+
+    /**
+     * Get an order's current receipt, rendering and storing it only if this version is not on disk yet.
+     * Customers may only download their own receipts.
+     * @param orderId Long
+     * @return ReceiptFile
+     */
+    public ReceiptFile getReceipt(Long orderId) {
+        ReceiptVersion version = getVersion(orderId);
+        Path path = pathOf(version);
+
+        if (Files.exists(path)) {
+            hits.incrementAndGet();
+            return new ReceiptFile(orderId, eTag(version), path);
+        }
+
+        path = render(version, () -> pdfGenerationService.renderOrderReceipt(pdfGenerationService.loadReceiptView(orderId)));
+
+        return new ReceiptFile(orderId, eTag(version), path);
+    }
+
+    /**
+     * Get an order's current receipt version without an access check, for receipt jobs and archives.
+     * Read it before loading the receipt, so a receipt is never stored under a newer version than its content.
+     * @param orderId Long
+     * @return ReceiptVersion
+     */
+    public ReceiptVersion getCurrentVersion(Long orderId) {
+        return orderRepository.findReceiptVersion(orderId)
+                .orElseThrow(() -> new InformationNotFoundException("Order " + orderId + " not found"));
+    }
+
+    /**
+     * Get a loaded receipt's bytes, from disk if this version was rendered before. Used by receipt jobs,
+     * so a mailed receipt is also ready for download.
+     * @param version ReceiptVersion read before the receipt was loaded
+     * @param receipt ReceiptView
+     * @return byte[] PDF document
+     */
+    public byte[] getReceiptBytes(ReceiptVersion version, ReceiptView receipt) {
+        Path path = pathOf(version);
+
+        try {
+            if (Files.exists(path)) {
+                hits.incrementAndGet();
+                return Files.readAllBytes(path);
+            }
+
+            return Files.readAllBytes(render(version, () -> pdfGenerationService.renderOrderReceipt(receipt)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read stored receipt", e);
+        }
+    }
+
+    /**
+     * Receipt cache counters
+     * @return Map of counter name to value
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("renders", renders.get());
+        stats.put("rendering", rendering.size());
+        return stats;
+    }
+
+    private ReceiptVersion getVersion(Long orderId) {
+        ReceiptVersion version = getCurrentVersion(orderId);
+
+        if (!getCurrentUser().canView(version.customerId())) // not owner customer not allowed to view data
+            throw new AccessDeniedException("You are not authorized to view this order's receipt. " +
+                    "Please contact a salesman or the order's customer.");
+
+        return version;
+    }
+
+    /**
+     * Render a version once, even when several requests miss it at the same time, and store it atomically
+     * @param version ReceiptVersion
+     * @param renderer supplies the PDF bytes
+     * @return Path stored file
+     */
+    private Path render(ReceiptVersion version, Supplier<byte[]> renderer) {
+        String key = versionKey(version);
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> inProgress = rendering.putIfAbsent(key, future);
+        if (inProgress != null) {
+            try {
+                return inProgress.join(); // another request is rendering this version
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+                throw e;
+            }
+        }
+
+        try {
+            Path path = store(version, renderer.get());
+            renders.incrementAndGet();
+            future.complete(path);
+            return path;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(key, future);
+        }
+    }
+
+    /**
+     * Write a rendered version and delete the order's older versions
+     * @param version ReceiptVersion
+     * @param pdfBytes byte[]
+     * @return Path stored file
+     */
+    private Path store(ReceiptVersion version, byte[] pdfBytes) {
+        Path path = pathOf(version);
+
+        try {
+            Files.createDirectories(cacheDir);
+            Path temp = cacheDir.resolve(UUID.randomUUID() + ".tmp");
+            Files.write(temp, pdfBytes);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store receipt", e);
+        }
+
+        try (DirectoryStream<Path> versions = Files.newDirectoryStream(cacheDir, version.orderId() + "-*.pdf")) {
+            for (Path stale : versions) {
+                if (!stale.equals(path)) Files.deleteIfExists(stale);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to delete old receipts of order " + version.orderId(), e);
+        }
+
+        return path;
+    }
+
+    private Path pathOf(ReceiptVersion version) {
+        return cacheDir.resolve(versionKey(version) + ".pdf");
+    }
+
+    private static String eTag(ReceiptVersion version) {
+        return "\"" + versionKey(version) + "\"";
+    }
+
+    private static String versionKey(ReceiptVersion version) {
+        return version.orderId() + "-" + (version.versionAt() == null ? "0" : version.versionAt().format(VERSION_FORMAT))
+                + "-" + (version.optionCount() == null ? 0 : version.optionCount());
+    }
+}
@@ -0,0 +1,172 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.exception.AccessDeniedException;
+import com.ga.showroom.exception.InformationNotFoundException;
+import com.ga.showroom.exception.ServiceUnavailableException;
+import com.ga.showroom.model.dto.ReceiptVersion;
+import com.ga.showroom.model.dto.ReceiptView;
+import com.ga.showroom.model.enums.ReceiptJobStatus;
+import com.ga.showroom.model.response.ReceiptJob;
+import com.ga.showroom.repository.OrderRepository;
+import com.ga.showroom.utility.BoundedCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.ga.showroom.service.UserService.getCurrentUser;
+
+/**
+ * Renders and mails order receipts on a dedicated, bounded worker pool instead of the request thread.
+ * Callers get a job to poll, requests for an order whose receipt is already in flight share its job,
+ * and a full queue fails fast with a ServiceUnavailableException.
+ */
+@Service
+public class ReceiptJobService {
+    Logger logger = Logger.getLogger(ReceiptJobService.class.getName());
+
+    private final PdfGenerationService pdfGenerationService;
+    private final ReceiptCacheService receiptCacheService;
+    private final OrderRepository orderRepository;
+    private final ThreadPoolExecutor executor;
+    private final BoundedCache<String, ReceiptJob> jobs;
+    private final Map<Long, String> inFlightJobs = new ConcurrentHashMap<>(); // order ID to job ID
+    private final long retryAfterSeconds;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Autowired
+    public ReceiptJobService(PdfGenerationService pdfGenerationService,
+                             ReceiptCacheService receiptCacheService,
+                             OrderRepository orderRepository,
+                             @Value("${receipt-threads:2}") int threads,
+                             @Value("${receipt-queue-capacity:100}") int queueCapacity,
+                             @Value("${receipt-job-max-entries:10000}") int maxJobs,
+                             @Value("${receipt-job-ttl-seconds:86400}") long jobTtlSeconds,
+                             @Value("${receipt-retry-after-seconds:10}") long retryAfterSeconds) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.pdfGenerationService = pdfGenerationService;
+        this.receiptCacheService = receiptCacheService;
+        this.orderRepository = orderRepository;
+        this.jobs = new BoundedCache<>(maxJobs, Duration.ofSeconds(jobTtlSeconds));
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "receipt-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queue an order's receipt to be rendered and emailed to its customer. Staff only.
+     * @param orderId Long
+     * @return ReceiptJob the new job, or the order's job already in flight
+     */
+    public ReceiptJob submit(Long orderId) {
+        if (!getCurrentUser().isStaff())
+            throw new AccessDeniedException("You are not authorized to send order receipt. Please contact a salesman or admin.");
+
+        if (!orderRepository.existsById(orderId))
+            throw new InformationNotFoundException("Order with ID " + orderId + " does not exist");
+
+        LocalDateTime now = LocalDateTime.now();
+        ReceiptJob job = new ReceiptJob(UUID.randomUUID().toString(), orderId, ReceiptJobStatus.QUEUED, null, now, now);
+
+        AtomicReference<ReceiptJob> inFlightJob = new AtomicReference<>();
+        inFlightJobs.compute(orderId, (id, inFlightJobId) -> { // atomic per order, so duplicates share one job
+            ReceiptJob existing = inFlightJobId == null ? null : jobs.get(inFlightJobId);
+            if (existing != null) {
+                inFlightJob.set(existing);
+                return inFlightJobId;
+            }
+
+            jobs.put(job.jobId(), job); // registered before its ID is published, or its old job was evicted
+            return job.jobId();
+        });
+        if (inFlightJob.get() != null) return inFlightJob.get();
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            inFlightJobs.remove(orderId, job.jobId());
+            jobs.invalidate(job.jobId());
+            rejected.incrementAndGet();
+            throw new ServiceUnavailableException("Too many receipts in progress. Please try again shortly.", retryAfterSeconds);
+        }
+
+        return job;
+    }
+
+    /**
+     * Get a receipt job's current state. Staff only.
+     * @param jobId String
+     * @return ReceiptJob
+     */
+    public ReceiptJob getJob(String jobId) {
+        if (!getCurrentUser().isStaff())
+            throw new AccessDeniedException("You are not authorized to view receipt jobs. Please contact a salesman or admin.");
+
+        ReceiptJob job = jobs.get(jobId);
+        if (job == null) throw new InformationNotFoundException("Receipt job " + jobId + " not found");
+
+        return job;
+    }
+
+    /**
+     * Receipt pool counters
+     * @return Map of counter name to value
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("completed", executor.getCompletedTaskCount());
+        stats.put("rejected", rejected.get());
+        stats.put("failed", failed.get());
+        stats.put("inFlight", inFlightJobs.size());
+        stats.put("jobs", jobs.stats());
+        return stats;
+    }
+
+    /**
+     * Render the receipt and queue its email, on a receipt worker
+     * @param job ReceiptJob
+     */
+    private void run(ReceiptJob job) {
+        try {
+            ReceiptVersion version = receiptCacheService.getCurrentVersion(job.orderId());
+            ReceiptView receipt = pdfGenerationService.loadReceiptView(job.orderId());
+            byte[] pdfBytes = receiptCacheService.getReceiptBytes(version, receipt); // also stores it for download
+            update(job, ReceiptJobStatus.RENDERED, null);
+
+            pdfGenerationService.mailOrderReceipt(receipt, pdfBytes);
+            update(job, ReceiptJobStatus.MAILED, null);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            logger.log(Level.WARNING, "Receipt for order " + job.orderId() + " failed", e);
+            update(job, ReceiptJobStatus.FAILED, e.getMessage());
+        } finally {
+            inFlightJobs.remove(job.orderId(), job.jobId());
+        }
+    }
+
+    private void update(ReceiptJob job, ReceiptJobStatus status, String error) {
+        jobs.put(job.jobId(), job.withStatus(status, error));
+    }
+}
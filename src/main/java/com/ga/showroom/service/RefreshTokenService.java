@@ -0,0 +1,150 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.exception.AccessDeniedException;
+import com.ga.showroom.exception.AuthenticationException;
+import com.ga.showroom.model.RefreshToken;
+import com.ga.showroom.model.User;
+import com.ga.showroom.model.enums.UserStatus;
+import com.ga.showroom.repository.RefreshTokenRepository;
+import com.ga.showroom.repository.UserRepository;
+import com.ga.showroom.utility.Hashing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Issues, rotates and revokes opaque refresh tokens
+ */
+@Service
+public class RefreshTokenService {
+    Logger logger = Logger.getLogger(RefreshTokenService.class.getName());
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final long refreshExpirationMs;
+    private final int purgeBatchSize;
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               @Value("${refresh-token-expiration-ms:1209600000}") long refreshExpirationMs,
+                               @Value("${refresh-token-purge-batch-size:1000}") int purgeBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Result of a rotation: the token's user and the replacement refresh token
+     * @param user User
+     * @param refreshToken String new raw refresh token
+     */
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    /**
+     * Issue a refresh token starting a new rotation family, e.g. on login
+     * @param userId Long
+     * @return String raw refresh token, only its hash is stored
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return create(userRepository.getReferenceById(userId), UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for a new one in the same family. Presenting a token that was already
+     * rotated or revoked is treated as theft and revokes the whole family.
+     * @param rawToken String
+     * @return Rotation
+     */
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null) throw new AuthenticationException("Invalid refresh token");
+
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(Hashing.sha256(rawToken))
+                .orElseThrow(() -> new AuthenticationException("Invalid refresh token"));
+
+        if (refreshToken.getRevoked() || refreshToken.getRotatedAt() != null) {
+            refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+            logger.warning("Refresh token reuse detected, revoked family " + refreshToken.getFamilyId());
+            throw new AuthenticationException("Refresh token has already been used. Please login again.");
+        }
+
+        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now()))
+            throw new AuthenticationException("Refresh token expired. Please login again.");
+
+        User user = refreshToken.getUser();
+        if (user.getUserStatus().equals(UserStatus.INACTIVE))
+            throw new AccessDeniedException("This account has been deactivated. Please contact an admin for support.");
+
+        refreshToken.setRotatedAt(LocalDateTime.now());
+        refreshTokenRepository.save(refreshToken);
+
+        return new Rotation(user, create(user, refreshToken.getFamilyId()));
+    }
+
+    /**
+     * Revoke the family of a refresh token, e.g. on logout. Unknown tokens are ignored.
+     * @param rawToken String
+     */
+    @Transactional
+    public void revokeFamilyOf(String rawToken) {
+        if (rawToken == null) return;
+
+        refreshTokenRepository.findByTokenHash(Hashing.sha256(rawToken))
+                .ifPresent(refreshToken -> refreshTokenRepository.revokeFamily(refreshToken.getFamilyId()));
+    }
+
+    /**
+     * Revoke every refresh token of a user, e.g. on soft delete or password change
+     * @param userId Long
+     */
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    /**
+     * Delete expired refresh tokens in bounded batches
+     */
+    @Scheduled(cron = "${refresh-token-purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+        int total = 0;
+        int deleted;
+
+        do {
+            deleted = refreshTokenRepository.deleteExpiredBatch(now, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+
+        logger.info("Purged " + total + " expired refresh tokens in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private String create(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(Hashing.sha256(rawToken));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000));
+        refreshToken.setRevoked(false);
+        refreshTokenRepository.save(refreshToken);
+
+        return rawToken;
+    }
+}
@@ -0,0 +1,198 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.exception.AccessDeniedException;
+import com.ga.showroom.exception.BadRequestException;
+import com.ga.showroom.model.dto.SalesReportRow;
+import com.ga.showroom.repository.OrderRepository;
+import com.lowagie.text.*;
+import com.lowagie.text.Font;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static com.ga.showroom.service.UserService.getCurrentUser;
+
+/**
+ * Period sales report PDF, grouped by salesman and car model with subtotals. Orders are read as one sorted,
+ * forward-only database cursor and the table is written to the response every few hundred rows, so memory
+ * stays flat regardless of the period's size.
+ */
+@Service
+public class SalesReportService {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy");
+
+    private final OrderRepository orderRepository;
+    private final PdfGenerationService pdfGenerationService;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int flushRows;
+    private final Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
+
+    /**
+     * Running order count and revenue of a group
+     */
+    private static final class Totals {
+        private long orders;
+        private double revenue;
+
+        private void add(SalesReportRow row) {
+            orders++;
+            revenue += row.totalPrice() == null ? 0 : row.totalPrice();
+        }
+
+        private void reset() {
+            orders = 0;
+            revenue = 0;
+        }
+    }
+
+    @Autowired
+    public SalesReportService(OrderRepository orderRepository,
+                              PdfGenerationService pdfGenerationService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${sales-report-flush-rows:500}") int flushRows) {
+        this.orderRepository = orderRepository;
+        this.pdfGenerationService = pdfGenerationService;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.flushRows = flushRows;
+    }
+
+    /**
+     * Render the sales report of every order between two days, inclusive. Staff only.
+     * @param startDate LocalDate
+     * @param endDate LocalDate
+     * @return StreamingResponseBody writing the PDF
+     */
+    public StreamingResponseBody renderSalesReport(LocalDate startDate, LocalDate endDate) {
+        if (getCurrentUser().isCustomer()) // customer not allowed to view data
+            throw new AccessDeniedException("You are not authorized to view sales reports.");
+
+        if (startDate == null || endDate == null || endDate.isBefore(startDate))
+            throw new BadRequestException("startDate must not be after endDate");
+
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+
+        return outputStream -> {
+            Document document = new Document(PageSize.A4, 36, 36, 48, 36);
+
+            try {
+                PdfWriter.getInstance(document, outputStream);
+                document.open();
+
+                Paragraph title = new Paragraph("Sales Report " + startDate.format(DATE_FORMAT) + " - " + endDate.format(DATE_FORMAT), titleFont);
+                title.setSpacingAfter(20f);
+                document.add(title);
+
+                PdfPTable table = new PdfPTable(5);
+                table.setWidthPercentage(100);
+                table.setWidths(new float[]{12, 18, 30, 25, 15});
+                table.setHeaderRows(1); // repeated on every page
+                table.setComplete(false); // rows are written out and released on every document.add
+                table.addCell(pdfGenerationService.header("Order"));
+                table.addCell(pdfGenerationService.header("Date"));
+                table.addCell(pdfGenerationService.header("Customer"));
+                table.addCell(pdfGenerationService.header("Vehicle number"));
+                table.addCell(pdfGenerationService.header("Total"));
+
+                // the cursor only stays open inside a transaction, so the whole report is written within one
+                readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<SalesReportRow> rows = orderRepository.streamSalesReportRows(start, end)) {
+                        writeRows(table, document, outputStream, rows.iterator());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+                table.setComplete(true);
+                document.add(table);
+            } catch (DocumentException e) {
+                throw new RuntimeException("Failed to generate PDF", e);
+            } finally {
+                if (document.isOpen()) {
+                    document.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Write the grouped rows, subtotals and grand total, sending the table's rows every flushRows orders
+     */
+    private void writeRows(PdfPTable table, Document document, OutputStream outputStream, Iterator<SalesReportRow> rows) throws IOException {
+        Totals salesmanTotals = new Totals();
+        Totals carModelTotals = new Totals();
+        Totals grandTotals = new Totals();
+        SalesReportRow previous = null;
+
+        while (rows.hasNext()) {
+            SalesReportRow row = rows.next();
+            boolean newSalesman = previous == null || !previous.salesmanId().equals(row.salesmanId());
+
+            if (previous != null && (newSalesman || !previous.carModelId().equals(row.carModelId()))) {
+                addSubtotal(table, previous.carModelName() + " subtotal", carModelTotals);
+                carModelTotals.reset();
+            }
+            if (previous != null && newSalesman) {
+                addSubtotal(table, previous.salesmanEmail() + " subtotal", salesmanTotals);
+                salesmanTotals.reset();
+            }
+            if (newSalesman) addGroup(table, "Salesman: " + row.salesmanEmail());
+            if (newSalesman || !previous.carModelId().equals(row.carModelId()))
+                addGroup(table, "Model: " + row.carModelName());
+
+            table.addCell(pdfGenerationService.data(String.valueOf(row.orderId())));
+            table.addCell(pdfGenerationService.data(row.createdAt().format(DATE_FORMAT)));
+            table.addCell(pdfGenerationService.data(String.valueOf(row.customerEmail())));
+            table.addCell(pdfGenerationService.data(String.valueOf(row.vinNumber())));
+            table.addCell(pdfGenerationService.dataRight(String.format("%.2f", row.totalPrice() == null ? 0 : row.totalPrice())));
+
+            salesmanTotals.add(row);
+            carModelTotals.add(row);
+            grandTotals.add(row);
+            previous = row;
+
+            if (grandTotals.orders % flushRows == 0) { // write the rows added so far
+                document.add(table);
+                outputStream.flush();
+            }
+        }
+
+        if (previous != null) {
+            addSubtotal(table, previous.carModelName() + " subtotal", carModelTotals);
+            addSubtotal(table, previous.salesmanEmail() + " subtotal", salesmanTotals);
+        } else {
+            addGroup(table, "No orders in this period");
+        }
+        addSubtotal(table, "Total", grandTotals);
+    }
+
+    private void addGroup(PdfPTable table, String label) {
+        PdfPCell cell = pdfGenerationService.headerInline(label);
+        cell.setColspan(5);
+        cell.setFixedHeight(20);
+        table.addCell(cell);
+    }
+
+    private void addSubtotal(PdfPTable table, String label, Totals totals) {
+        PdfPCell labelCell = pdfGenerationService.totalData(label + " (" + totals.orders + " orders)");
+        labelCell.setColspan(4);
+        table.addCell(labelCell);
+        table.addCell(pdfGenerationService.totalData(String.format("%.2f", totals.revenue)));
+    }
+}
@@ -0,0 +1,150 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.exception.AccessDeniedException;
+import com.ga.showroom.exception.BadRequestException;
+import com.ga.showroom.model.dto.DailySales;
+import com.ga.showroom.model.dto.SalesTotals;
+import com.ga.showroom.repository.OrderRepository;
+import com.ga.showroom.repository.SalesRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static com.ga.showroom.service.UserService.getCurrentUser;
+
+/**
+ * Sales rollups per day, salesman and car model. New orders are added to their rollup in the transaction that
+ * creates them, and a scheduled rebuild recomputes every rollup from the orders table, so reports read a few
+ * rows per day regardless of how many orders exist.
+ */
+@Service
+public class SalesRollupService {
+    Logger logger = Logger.getLogger(SalesRollupService.class.getName());
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile LocalDateTime lastRebuildAt;
+    private volatile int lastRebuildRows;
+    private volatile long lastRebuildDurationMs;
+
+    @Autowired
+    public SalesRollupService(SalesRollupRepository salesRollupRepository,
+                              OrderRepository orderRepository,
+                              TransactionTemplate transactionTemplate) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Add newly created orders to their rollups. Must be called inside the transaction that created them.
+     * @param orderIds Collection of order IDs
+     */
+    public void addOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) return;
+
+        orderRepository.flush(); // the upsert reads the orders and their cars back from the database
+        salesRollupRepository.addOrders(orderIds);
+    }
+
+    /**
+     * Recompute every rollup from the orders table in one transaction. Incremental updates wait on the
+     * table lock until the rebuild commits, so no order is counted twice or missed.
+     */
+    @Scheduled(cron = "${sales-rollup-rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+
+        Integer rows = transactionTemplate.execute(status -> {
+            salesRollupRepository.lockTable();
+            salesRollupRepository.deleteAllRows();
+            return salesRollupRepository.insertFromOrders();
+        });
+
+        lastRebuildAt = now;
+        lastRebuildRows = rows == null ? 0 : rows;
+        lastRebuildDurationMs = System.currentTimeMillis() - start;
+
+        logger.info("Rebuilt " + lastRebuildRows + " sales rollups in " + lastRebuildDurationMs + "ms");
+    }
+
+    /**
+     * Rebuild the rollups now. Admin only.
+     * @return Map of counter name to value
+     */
+    public Map<String, Object> rebuildNow() {
+        if (!getCurrentUser().isAdmin())
+            throw new AccessDeniedException("Only an admin is authorized to rebuild sales rollups.");
+
+        rebuild();
+        return getStats();
+    }
+
+    /**
+     * Get sales per salesman between two days. Staff only.
+     * @param start LocalDate inclusive
+     * @param end LocalDate inclusive
+     * @return List of SalesTotals, highest revenue first
+     */
+    public List<SalesTotals> getSalesBySalesman(LocalDate start, LocalDate end) {
+        checkReportAccess(start, end);
+        return salesRollupRepository.sumBySalesman(start, end);
+    }
+
+    /**
+     * Get sales per car model between two days. Staff only.
+     * @param start LocalDate inclusive
+     * @param end LocalDate inclusive
+     * @return List of SalesTotals, highest revenue first
+     */
+    public List<SalesTotals> getSalesByCarModel(LocalDate start, LocalDate end) {
+        checkReportAccess(start, end);
+        return salesRollupRepository.sumByCarModel(start, end);
+    }
+
+    /**
+     * Get sales per day between two days, optionally for one salesman. Staff only.
+     * @param start LocalDate inclusive
+     * @param end LocalDate inclusive
+     * @param salesmanId Long optional
+     * @return List of DailySales, oldest first, days without sales omitted
+     */
+    public List<DailySales> getSalesByDay(LocalDate start, LocalDate end, Long salesmanId) {
+        checkReportAccess(start, end);
+
+        if (salesmanId != null) return salesRollupRepository.sumByDayAndSalesmanId(start, end, salesmanId);
+        return salesRollupRepository.sumByDay(start, end);
+    }
+
+    /**
+     * Get the results of the last rebuild
+     * @return Map of counter name to value
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lastRebuildAt", lastRebuildAt);
+        stats.put("rows", lastRebuildRows);
+        stats.put("durationMs", lastRebuildDurationMs);
+        return stats;
+    }
+
+    private void checkReportAccess(LocalDate start, LocalDate end) {
+        if (getCurrentUser().isCustomer()) // customer not allowed to view data
+            throw new AccessDeniedException("You are not authorized to view sales reports.");
+
+        if (start == null || end == null || end.isBefore(start))
+            throw new BadRequestException("startDate must not be after endDate");
+    }
+}
@@ -1,9 +1,11 @@
 package com.ga.showroom.service;
 
+import com.ga.showroom.event.UserChangedEvent;
 import com.ga.showroom.exception.AccessDeniedException;
 import com.ga.showroom.exception.AuthenticationException;
 import com.ga.showroom.exception.InformationExistException;
 import com.ga.showroom.exception.InformationNotFoundException;
+import com.ga.showroom.exception.ServiceUnavailableException;
 import com.ga.showroom.model.*;
 import com.ga.showroom.model.enums.Role;
 import com.ga.showroom.model.enums.UserStatus;
@@ -14,16 +16,20 @@ import com.ga.showroom.model.response.LoginResponse;
 import com.ga.showroom.repository.EmailVerificationTokenRepository;
 import com.ga.showroom.repository.PasswordResetTokenRepository;
 import com.ga.showroom.repository.UserRepository;
+import com.ga.showroom.security.AuthRateLimiter;
+import com.ga.showroom.security.CurrentUser;
 import com.ga.showroom.security.JWTUtils;
+import com.ga.showroom.security.JwtVerifier;
+import com.ga.showroom.security.TokenRevocationService;
+import com.ga.showroom.security.VerifiedToken;
 import com.ga.showroom.security.MyUserDetails;
 import com.ga.showroom.utility.Uploads;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -34,7 +40,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
-import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -45,10 +50,15 @@ public class UserService {
     private final AuthenticationManager authenticationManager;
     private MyUserDetails myUserDetails;
     private PasswordResetTokenRepository passwordResetTokenRepository;
-    private JavaMailSender mailSender;
+    private EmailOutboxService emailOutboxService;
     private EmailVerificationTokenRepository emailVerificationTokenRepository;
     final String uploadImagePath = "uploads/cpr-images";
     private final Uploads uploads;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuthRateLimiter authRateLimiter;
+    private final JwtVerifier jwtVerifier;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
 
     @Autowired
     public UserService(UserRepository userRepository,
@@ -57,22 +67,34 @@ public class UserService {
                        @Lazy AuthenticationManager authenticationManager,
                        @Lazy MyUserDetails myUserDetails,
                        PasswordResetTokenRepository passwordResetTokenRepository,
-                       @Lazy JavaMailSender mailSender,
+                       EmailOutboxService emailOutboxService,
                        EmailVerificationTokenRepository emailVerificationTokenRepository,
-                       Uploads uploads) {
+                       Uploads uploads,
+                       ApplicationEventPublisher eventPublisher,
+                       AuthRateLimiter authRateLimiter,
+                       JwtVerifier jwtVerifier,
+                       TokenRevocationService tokenRevocationService,
+                       RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtils = jwtUtils;
         this.authenticationManager = authenticationManager;
         this.myUserDetails = myUserDetails;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
-        this.mailSender = mailSender;
+        this.emailOutboxService = emailOutboxService;
         this.emailVerificationTokenRepository = emailVerificationTokenRepository;
         this.uploads = uploads;
+        this.eventPublisher = eventPublisher;
+        this.authRateLimiter = authRateLimiter;
+        this.jwtVerifier = jwtVerifier;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
     }
 
+    @Transactional
     public User createUser(User userObject) {
         System.out.println("service calling createUser ==> ");
+        authRateLimiter.acquireForEmail(userObject.getEmailAddress());
 
         if(!userRepository.existsByEmailAddress(userObject.getEmailAddress())){
             userObject.setPassword(passwordEncoder.encode(userObject.getPassword()));
@@ -100,7 +122,22 @@ public class UserService {
         return userRepository.findUserByEmailAddress(email);
     }
 
+    /**
+     * Replace a user's stored password hash with one already encoded, used to upgrade the BCrypt cost on login
+     * @param emailAddress String
+     * @param encodedPassword String
+     * @return User
+     */
+    public User updateEncodedPassword(String emailAddress, String encodedPassword) {
+        User user = userRepository.findUserByEmailAddress(emailAddress);
+        if (user == null) throw new InformationNotFoundException("User with email address " + emailAddress + " not found");
+
+        user.setPassword(encodedPassword);
+        return userRepository.save(user);
+    }
+
     public ResponseEntity<?> loginUser(LoginRequest loginRequest) {
+        authRateLimiter.acquireForEmail(loginRequest.getEmailAddress());
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(loginRequest.getEmailAddress(), loginRequest.getPassword());
         try {
             Authentication authentication = authenticationManager
@@ -127,25 +164,55 @@ public class UserService {
 
             final String JWT = jwtUtils.generateJwtToken(myUserDetails);
             System.out.println("jwt"+JWT);
+            final String refreshToken = refreshTokenService.issue(myUserDetails.getUser().getId());
 
-            return ResponseEntity.ok(new LoginResponse(JWT));
+            return ResponseEntity.ok(new LoginResponse(JWT, refreshToken));
+        } catch (ServiceUnavailableException e) {
+            throw e; // hashing pool is full, let the client retry later
         } catch (Exception e) {
             return ResponseEntity.ok(new LoginResponse("Error : user name or password is incorrect"));
         }
     }
 
     /**
-     * Get current logged in user
-     * @return User
+     * Exchange a refresh token for a new short-lived access token and a rotated refresh token
+     * @param refreshToken String
+     * @return LoginResponse [access token, refresh token]
+     */
+    public LoginResponse refreshToken(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        return new LoginResponse(jwtUtils.generateJwtToken(new MyUserDetails(rotation.user())), rotation.refreshToken());
+    }
+
+    /**
+     * Logout the current user by revoking the access token used for this request,
+     * and the refresh token family if one is given
+     * @param authorizationHeader String "Bearer {token}"
+     * @param refreshToken String optional
+     */
+    public void logout(String authorizationHeader, String refreshToken) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer "))
+            throw new AuthenticationException("Missing bearer token");
+
+        VerifiedToken token = jwtVerifier.verify(authorizationHeader.substring(7));
+        if (token == null) throw new AuthenticationException("Invalid token");
+
+        tokenRevocationService.revokeToken(token);
+        refreshTokenService.revokeFamilyOf(refreshToken);
+    }
+
+    /**
+     * Get the authorization flags of the current logged in user, resolved once with the request's principal
+     * @return CurrentUser
      */
-    public static User getCurrentLoggedInUser() {
+    public static CurrentUser getCurrentUser() {
         MyUserDetails userDetails = (MyUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         assert userDetails != null;
-        return userDetails.getUser();
+        return userDetails.getCurrentUser();
     }
 
     public ChangePasswordResponse changePassword(ChangePasswordRequest changePasswordRequest) {
-        User user = userRepository.findUserByEmailAddress(UserService.getCurrentLoggedInUser().getEmailAddress());
+        User user = userRepository.findUserByEmailAddress(getCurrentUser().getEmailAddress());
 
         if (user.getUserStatus() == UserStatus.INACTIVE) throw new AccessDeniedException("This account has been deactivated. Please contact an admin for support.");
 
@@ -158,17 +225,19 @@ public class UserService {
         } else {
             user.setPassword(passwordEncoder.encode(changePasswordRequest.getNewPassword()));
              userRepository.save(user);
+             eventPublisher.publishEvent(new UserChangedEvent(user.getEmailAddress()));
+             tokenRevocationService.revokeAllForUser(user.getId());
+             refreshTokenService.revokeAllForUser(user.getId());
              return new ChangePasswordResponse("Password for " + user.getEmailAddress() + " has been changed successfully!");
         }
     }
 
     public UserProfile updateProfile(UserProfile userProfile, MultipartFile cprImage) {
-        User user = userRepository.findUserByEmailAddress(UserService.getCurrentLoggedInUser().getEmailAddress());
+        User user = userRepository.findUserByEmailAddress(getCurrentUser().getEmailAddress());
 
         if (user.getUserStatus().equals(UserStatus.INACTIVE)) throw new AccessDeniedException("This account has been deactivated. Please contact an admin for support.");
 
-        if (getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER)
-                && !user.getId().equals(getCurrentLoggedInUser().getId()))
+        if (!getCurrentUser().canView(user.getId()))
             throw new AccessDeniedException("You are not authorized to change another user's profile data. Please contact a salesman or admin.");
 
         UserProfile profile = user.getUserProfile();
@@ -191,11 +260,13 @@ public class UserService {
         profile.setCprImage(newCPRImage);
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmailAddress()));
         return profile;
     }
 
     @Transactional
     public void forgotPassword(String emailAddress) {
+        authRateLimiter.acquireForEmail(emailAddress);
         User user = userRepository.findUserByEmailAddress(emailAddress);
         if (user == null) throw new InformationNotFoundException("User with email address " + emailAddress + " not found");
 
@@ -229,32 +300,29 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmailAddress()));
+        tokenRevocationService.revokeAllForUser(user.getId());
+        refreshTokenService.revokeAllForUser(user.getId());
 
         passwordResetTokenRepository.delete(resetToken);
     }
 
+    /**
+     * Queue the password reset email in the outbox, within the caller's transaction
+     * @param toEmail String
+     * @param token String
+     */
     private void sendResetEmail(String toEmail, String token) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(toEmail);
-
-        message.setFrom("no-reply@showroom.com");
-
-        message.setSubject("Password Reset Request");
-        message.setText("Reset your password using this token:\n" + token);
-
-        mailSender.send(message);
+        emailOutboxService.enqueue(toEmail, "Password Reset Request", "Reset your password using this token:\n" + token);
     }
 
+    /**
+     * Queue the verification email in the outbox, within the caller's transaction
+     * @param toEmail String
+     * @param token String
+     */
     private void sendVerificationEmail(String toEmail, String token) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(toEmail);
-
-        message.setFrom("no-reply@showroom.com");
-
-        message.setSubject("Verify Email Request");
-        message.setText("Verify your email using this token:\n" + token);
-
-        mailSender.send(message);
+        emailOutboxService.enqueue(toEmail, "Verify Email Request", "Verify your email using this token:\n" + token);
     }
 
     public void verifyEmail(String token) {
@@ -273,6 +341,7 @@ public class UserService {
         user.setVerified(true);
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmailAddress()));
         emailVerificationTokenRepository.delete(verificationToken);
     }
 
@@ -283,7 +352,7 @@ public class UserService {
      * @return User
      */
     public User updateUserRole(String emailAddress, Role role) {
-        if (!getCurrentLoggedInUser().getRole().equals(Role.ADMIN))
+        if (!getCurrentUser().isAdmin())
             throw new AccessDeniedException("Only an admin is authorized to change user roles.");
 
         User user = findUserByEmailAddress(emailAddress);
@@ -294,11 +363,15 @@ public class UserService {
 
         user.setRole(role);
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getEmailAddress()));
+        tokenRevocationService.revokeAllForUser(savedUser.getId()); // issued tokens carry the old claims
+        refreshTokenService.revokeAllForUser(savedUser.getId());
+        return savedUser;
     }
 
     public void softDeleteUser(Long userId) {
-        if (!getCurrentLoggedInUser().getRole().equals(Role.ADMIN))
+        if (!getCurrentUser().isAdmin())
             throw new AccessDeniedException("Only an admin is authorized to change user status.");
 
         User user = userRepository
@@ -310,6 +383,9 @@ public class UserService {
 
         user.setUserStatus(UserStatus.INACTIVE);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmailAddress()));
+        tokenRevocationService.revokeAllForUser(user.getId());
+        refreshTokenService.revokeAllForUser(user.getId());
     }
 
     /**
@@ -318,7 +394,7 @@ public class UserService {
      * @return User
      */
     public User reactivateUserAccount(Long userId) {
-        if (!getCurrentLoggedInUser().getRole().equals(Role.ADMIN))
+        if (!getCurrentUser().isAdmin())
             throw new AccessDeniedException("Only an admin is authorized to change user status.");
 
         User user = userRepository
@@ -328,7 +404,11 @@ public class UserService {
         if (user.getUserStatus().equals(UserStatus.ACTIVE)) throw new AccessDeniedException("This account is already activated.");
 
         user.setUserStatus(UserStatus.ACTIVE);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getEmailAddress()));
+        tokenRevocationService.revokeAllForUser(savedUser.getId()); // issued tokens carry the old claims
+        refreshTokenService.revokeAllForUser(savedUser.getId());
+        return savedUser;
     }
 
     /**
@@ -337,12 +417,12 @@ public class UserService {
      * @return User
      */
     public User getUserById(Long userId) {
-        if (getCurrentLoggedInUser().getUserStatus().equals(UserStatus.INACTIVE)) throw new AccessDeniedException("This account has been deactivated. Please contact an admin for support.");
+        if (!getCurrentUser().isActive()) throw new AccessDeniedException("This account has been deactivated. Please contact an admin for support.");
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new InformationNotFoundException("User with ID " + userId + " not found"));
 
-        if (!Objects.equals(user.getId(), getCurrentLoggedInUser().getId()) && getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER))
+        if (!getCurrentUser().canView(user.getId()))
             throw new AccessDeniedException("You are not authorized to view this user's data. Please contact an admin, salesman or the account owner for support.");
 
         return  user;
@@ -354,14 +434,7 @@ public class UserService {
      * @return ResponseEntity Resource The stored image if any [PNG, JPEG]
      */
     public ResponseEntity<Resource> downloadCPRImage(Long userId) {
-        if (getCurrentLoggedInUser().getUserStatus().equals(UserStatus.INACTIVE)) throw new AccessDeniedException("This account has been deactivated. Please contact an admin for support.");
-
-        User user = getUserById(userId);
-
-        if (user == null) throw new InformationNotFoundException("User with ID " + userId + " not found");
-
-        if (!Objects.equals(user.getId(), getCurrentLoggedInUser().getId()) && getCurrentLoggedInUser().getRole().equals(Role.CUSTOMER))
-            throw new AccessDeniedException("You are not authorized to view this user's data. Please contact an admin, salesman or the account owner for support.");
+        User user = getUserById(userId); // checks the current user is active and may view this user
 
         return uploads.downloadImage(uploadImagePath, user.getUserProfile().getCprImage());
     }
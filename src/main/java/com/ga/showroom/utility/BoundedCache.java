@@ -0,0 +1,147 @@
+package com.ga.showroom.utility;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Thread-safe, size bounded LRU cache with per-entry expiry and hit/miss/eviction counters.
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private record CacheEntry<T>(T value, long expiresAt) {
+    }
+
+    /**
+     * Create a cache
+     * @param maxEntries int maximum number of entries before the least recently used one is evicted
+     * @param ttl Duration default time to live of an entry
+     */
+    public BoundedCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > BoundedCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a live entry's value
+     * @param key K
+     * @return V, or null if absent or expired
+     */
+    public synchronized V get(K key) {
+        CacheEntry<V> entry = entries.get(key);
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            evictions++;
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.value();
+    }
+
+    /**
+     * Store a value with the default time to live
+     * @param key K
+     * @param value V
+     */
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * Store a value that expires at a specific time, capped at the default time to live
+     * @param key K
+     * @param value V
+     * @param expiresAtMillis long epoch milliseconds
+     */
+    public synchronized void put(K key, V value, long expiresAtMillis) {
+        entries.put(key, new CacheEntry<>(value, Math.min(expiresAtMillis, System.currentTimeMillis() + ttlMillis)));
+    }
+
+    /**
+     * Store a value only if no live entry exists for the key
+     * @param key K
+     * @param value V
+     * @return V the existing live value, or null if the new value was stored
+     */
+    public synchronized V putIfAbsent(K key, V value) {
+        CacheEntry<V> entry = entries.get(key);
+
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) return entry.value();
+
+        entries.put(key, new CacheEntry<>(value, System.currentTimeMillis() + ttlMillis));
+        return null;
+    }
+
+    /**
+     * Remove an entry
+     * @param key K
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove an entry only if it still holds this exact value, so an entry replaced in the meantime is kept
+     * @param key K
+     * @param value V compared by identity
+     * @return boolean true if the entry was removed
+     */
+    public synchronized boolean invalidate(K key, V value) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null || entry.value() != value) return false;
+
+        entries.remove(key);
+        return true;
+    }
+
+    /**
+     * Remove all entries matching a condition
+     * @param condition BiPredicate of key and value
+     */
+    public synchronized void invalidateIf(BiPredicate<K, V> condition) {
+        entries.entrySet().removeIf(entry -> condition.test(entry.getKey(), entry.getValue().value()));
+    }
+
+    /**
+     * Remove all entries
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Snapshot of the cache counters
+     * @return CacheStats
+     */
+    public synchronized CacheStats stats() {
+        long lookups = hits + misses;
+        return new CacheStats(hits, misses, evictions, entries.size(), lookups == 0 ? 0 : (double) hits / lookups);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ga.showroom.utility;
+
+/**
+ * Snapshot of a cache's counters
+ * @param hits long lookups answered from the cache
+ * @param misses long lookups not found or expired
+ * @param evictions long entries dropped for size or expiry
+ * @param size int current entry count
+ * @param hitRate double hits / (hits + misses)
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, double hitRate) {
+}
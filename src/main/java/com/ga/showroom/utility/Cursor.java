@@ -0,0 +1,45 @@
+package com.ga.showroom.utility;
+
+import com.ga.showroom.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a list ordered by (createdAt, id) descending, exchanged with clients as an opaque token
+ * @param createdAt LocalDateTime of the last row returned
+ * @param id Long of the last row returned
+ */
+public record Cursor(LocalDateTime createdAt, Long id) {
+    /**
+     * Cursor before the newest row, used for the first page
+     */
+    public static final Cursor START = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    /**
+     * Encode as an opaque, URL safe token
+     * @return String
+     */
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token from a previous page
+     * @param token String, null or blank for the first page
+     * @return Cursor
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) return START;
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(value.substring(0, separator)), Long.valueOf(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor " + token);
+        }
+    }
+}
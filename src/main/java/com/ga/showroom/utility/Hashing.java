@@ -0,0 +1,29 @@
+package com.ga.showroom.utility;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Hashing helpers for tokens and request fingerprints
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * SHA-256 digest of a string
+     * @param value String
+     * @return String URL-safe base64 digest without padding
+     */
+    public static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ga.showroom.security;
+
+import com.ga.showroom.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimiterTests {
+
+    @Test
+    void ipBucketAllowsCapacityThenRejects() {
+        AuthRateLimiter limiter = new AuthRateLimiter(4, 16, 3, 3, 5, 5);
+
+        for (int i = 0; i < 3; i++) assertEquals(0, limiter.tryAcquireForIp("10.0.0.1"));
+        assertTrue(limiter.tryAcquireForIp("10.0.0.1") > 0);
+        assertEquals(0, limiter.tryAcquireForIp("10.0.0.2"));
+        assertEquals(1L, limiter.getStats().get("rejectedByIp"));
+    }
+
+    @Test
+    void emailBucketIgnoresCaseAndWhitespace() {
+        AuthRateLimiter limiter = new AuthRateLimiter(4, 16, 20, 20, 2, 2);
+
+        limiter.acquireForEmail("Customer@Showroom.com");
+        limiter.acquireForEmail(" customer@showroom.com ");
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquireForEmail("customer@showroom.com"));
+
+        assertTrue(e.getRetryAfterSeconds() > 0);
+        assertEquals(1L, limiter.getStats().get("rejectedByEmail"));
+    }
+
+    @Test
+    void bucketRefillsOverTime() throws InterruptedException {
+        AuthRateLimiter limiter = new AuthRateLimiter(1, 16, 1, 600, 5, 5); // one token every 100ms
+
+        assertEquals(0, limiter.tryAcquireForIp("10.0.0.1"));
+        assertEquals(1, limiter.tryAcquireForIp("10.0.0.1"));
+
+        Thread.sleep(150);
+        assertEquals(0, limiter.tryAcquireForIp("10.0.0.1"));
+    }
+
+    @Test
+    void throttledSlotIsNeverReusedForAnotherKey() {
+        AuthRateLimiter limiter = new AuthRateLimiter(1, 1, 2, 2, 5, 5);
+
+        assertEquals(0, limiter.tryAcquireForIp("10.0.0.1"));
+        assertTrue(limiter.tryAcquireForIp("10.0.0.2") > 0); // the only slot is still partly drained
+
+        assertEquals(0, limiter.tryAcquireForIp("10.0.0.1"));
+        assertTrue(limiter.tryAcquireForIp("10.0.0.1") > 0); // not reset by the other key
+    }
+
+    @Test
+    void idleCheckUsesTheSlotsOwnCapacity() {
+        AuthRateLimiter limiter = new AuthRateLimiter(1, 1, 20, 20, 5, 5);
+
+        for (int i = 0; i < 10; i++) assertEquals(0, limiter.tryAcquireForIp("10.0.0.1"));
+
+        // 10 tokens left is more than an email bucket holds, but the IP bucket is not full
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquireForEmail("customer@showroom.com"));
+
+        for (int i = 0; i < 10; i++) assertEquals(0, limiter.tryAcquireForIp("10.0.0.1"));
+        assertTrue(limiter.tryAcquireForIp("10.0.0.1") > 0);
+    }
+
+    @Test
+    void fullBucketSlotIsReused() throws InterruptedException {
+        AuthRateLimiter limiter = new AuthRateLimiter(1, 1, 1, 600, 5, 5); // refills in 100ms
+
+        assertEquals(0, limiter.tryAcquireForIp("10.0.0.1"));
+        assertTrue(limiter.tryAcquireForIp("10.0.0.2") > 0);
+
+        Thread.sleep(150);
+        assertEquals(0, limiter.tryAcquireForIp("10.0.0.2"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.ga.showroom.security;
+
+import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.enums.UserStatus;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of per-request JWT verification: the previous filter path, which validated a token and then
+ * parsed it again for its subject with a parser built on every call, against JwtVerifier's single decode with
+ * a reusable parser, uncached and cached. Run the main method from the test classpath, e.g. in the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifierBenchmark {
+    private static final String SECRET = "FcSWELEZ7RpoRTJnLU7xI46g+zXOSMCwKIOrgS/qB5g=";
+
+    private String token;
+    private JwtVerifier uncachedVerifier;
+    private JwtVerifier cachedVerifier;
+
+    @Setup
+    public void setUp() {
+        long now = System.currentTimeMillis();
+        token = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("customer@showroom.com")
+                .claim(JWTUtils.CLAIM_USER_ID, 42L)
+                .claim(JWTUtils.CLAIM_ROLE, Role.CUSTOMER.name())
+                .claim(JWTUtils.CLAIM_STATUS, UserStatus.ACTIVE.name())
+                .claim(JWTUtils.CLAIM_VERIFIED, true)
+                .claim(JWTUtils.CLAIM_ISSUED_AT_MS, now)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 3_600_000))
+                .signWith(SignatureAlgorithm.HS256, SECRET)
+                .compact();
+
+        uncachedVerifier = new JwtVerifier(SECRET, 3_600_000, 0); // every entry is evicted as soon as it is added
+        cachedVerifier = new JwtVerifier(SECRET, 3_600_000, 1_000);
+        cachedVerifier.verify(token);
+    }
+
+    /**
+     * Previous JWTRequestFilter path: validateJwtToken then getUserNameFromJwtToken, two full parses
+     */
+    @Benchmark
+    public String twoParses() {
+        Jwts.parserBuilder().setSigningKey(SECRET).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(SECRET).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public VerifiedToken singleDecode() {
+        return uncachedVerifier.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken cachedDecode() {
+        return cachedVerifier.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerifierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
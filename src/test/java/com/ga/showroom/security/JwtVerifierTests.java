@@ -0,0 +1,97 @@
+package com.ga.showroom.security;
+
+import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.enums.UserStatus;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTests {
+    private static final String SECRET = "FcSWELEZ7RpoRTJnLU7xI46g+zXOSMCwKIOrgS/qB5g=";
+    private static final String OTHER_SECRET = "dGhpcyBpcyBhIGRpZmZlcmVudCAzMiBieXRlIGtleSE=";
+
+    private final JwtVerifier jwtVerifier = new JwtVerifier(SECRET, 900_000, 100);
+
+    @Test
+    void verifyDecodesClaims() {
+        long issuedAt = System.currentTimeMillis();
+        VerifiedToken token = jwtVerifier.verify(token(SECRET, issuedAt, 60_000));
+
+        assertNotNull(token);
+        assertEquals("customer@showroom.com", token.subject());
+        assertEquals(42L, token.userId());
+        assertEquals(Role.CUSTOMER, token.role());
+        assertEquals(UserStatus.ACTIVE, token.userStatus());
+        assertTrue(token.verified());
+        assertEquals(issuedAt, token.issuedAt().toEpochMilli());
+        assertTrue(token.hasUserClaims());
+    }
+
+    @Test
+    void verifyReusesCachedToken() {
+        String jwt = token(SECRET, System.currentTimeMillis(), 60_000);
+
+        VerifiedToken first = jwtVerifier.verify(jwt);
+        VerifiedToken second = jwtVerifier.verify(jwt);
+
+        assertSame(first, second);
+        assertEquals(1, jwtVerifier.getCacheStats().hits());
+        assertEquals(1, jwtVerifier.getCacheStats().misses());
+    }
+
+    @Test
+    void verifyRejectsInvalidTokensWithoutCachingThem() {
+        String forged = token(OTHER_SECRET, System.currentTimeMillis(), 60_000);
+
+        assertNull(jwtVerifier.verify(forged));
+        assertNull(jwtVerifier.verify(forged));
+        assertNull(jwtVerifier.verify("not-a-jwt"));
+        assertEquals(0, jwtVerifier.getCacheStats().hits());
+        assertEquals(0, jwtVerifier.getCacheStats().size());
+    }
+
+    @Test
+    void cachedTokenExpiresWithTheToken() throws InterruptedException {
+        String jwt = token(SECRET, System.currentTimeMillis(), 1_000);
+        assertNotNull(jwtVerifier.verify(jwt));
+
+        Thread.sleep(2_100); // exp has second precision
+
+        assertNull(jwtVerifier.verify(jwt));
+        assertEquals(0, jwtVerifier.getCacheStats().hits());
+    }
+
+    @Test
+    void cacheEntriesNeverOutliveTheConfiguredTtl() throws InterruptedException {
+        JwtVerifier shortLived = new JwtVerifier(SECRET, 200, 100);
+        String jwt = token(SECRET, System.currentTimeMillis(), 60_000);
+
+        VerifiedToken first = shortLived.verify(jwt);
+        Thread.sleep(300);
+        VerifiedToken second = shortLived.verify(jwt);
+
+        assertNotNull(second);
+        assertNotSame(first, second); // verified again once the cache entry expired
+        assertEquals(0, shortLived.getCacheStats().hits());
+    }
+
+    private static String token(String secret, long issuedAt, long validForMs) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("customer@showroom.com")
+                .claim(JWTUtils.CLAIM_USER_ID, 42L)
+                .claim(JWTUtils.CLAIM_ROLE, Role.CUSTOMER.name())
+                .claim(JWTUtils.CLAIM_STATUS, UserStatus.ACTIVE.name())
+                .claim(JWTUtils.CLAIM_VERIFIED, true)
+                .claim(JWTUtils.CLAIM_ISSUED_AT_MS, issuedAt)
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(issuedAt + validForMs))
+                .signWith(SignatureAlgorithm.HS256, secret)
+                .compact();
+    }
+}
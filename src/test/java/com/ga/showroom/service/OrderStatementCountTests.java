@@ -0,0 +1,188 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.event.CatalogChangedEvent;
+import com.ga.showroom.model.*;
+import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.enums.UserStatus;
+import com.ga.showroom.security.MyUserDetails;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement count and latency benchmark of order creation. With pooled sequence ids and JDBC batching, the statements
+ * of createOrder do not grow with its options, and a bulk import issues a few statements per chunk rather than several
+ * per row. Counts and timings are logged so runs can be compared.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "order-import-chunk-size=100"
+})
+@Transactional
+class OrderStatementCountTests {
+    Logger logger = Logger.getLogger(OrderStatementCountTests.class.getName());
+
+    private static final int OPTIONS = 10;
+    private static final int IMPORT_ROWS = 200;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    @Autowired
+    private PriceEngine priceEngine;
+
+    private Statistics statistics;
+    private User customer;
+    private CarModel carModel;
+    private final List<Long> optionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User salesman = persistUser(Role.SALESMAN);
+        customer = persistUser(Role.CUSTOMER);
+
+        carModel = new CarModel();
+        carModel.setName("Benchmark Model");
+        carModel.setMakeYear(Year.of(2025));
+        carModel.setManufacturer("Benchmark Manufacturer");
+        carModel.setPrice(20000.0);
+        entityManager.persist(carModel);
+
+        for (int i = 0; i < OPTIONS; i++) {
+            Option option = new Option();
+            option.setName("Benchmark Option " + i);
+            option.setPrice(100.0 + i);
+            option.setCarModel(carModel);
+            entityManager.persist(option);
+            optionIds.add(option.getId());
+        }
+        entityManager.flush();
+        priceEngine.onCatalogChanged(new CatalogChangedEvent(carModel.getId())); // normally runs after commit
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new MyUserDetails(salesman), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createOrderStatementsDoNotGrowWithOptions() {
+        createOrder(optionIds); // warm up sequences and caches
+
+        long oneOption = measureCreateOrder(optionIds.subList(0, 1));
+        long allOptions = measureCreateOrder(optionIds);
+
+        // a pooled sequence may need one extra round trip when its block of ids runs out
+        assertTrue(allOptions <= oneOption + 1,
+                "createOrder with " + OPTIONS + " options issued " + allOptions + " statements, with 1 option " + oneOption);
+    }
+
+    @Test
+    void bulkImportIssuesFewerStatementsThanRows() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < IMPORT_ROWS; i++) {
+            String id = UUID.randomUUID().toString();
+            body.append("{\"vinNumber\":\"VIN-").append(id)
+                    .append("\",\"registrationNumber\":\"REG-").append(id)
+                    .append("\",\"insurancePolicy\":\"INS-").append(id)
+                    .append("\",\"modelId\":").append(carModel.getId())
+                    .append(",\"ownerId\":").append(customer.getId())
+                    .append(",\"options\":").append(optionIds.subList(0, 3))
+                    .append("}\n");
+        }
+
+        statistics.clear();
+        long start = System.nanoTime();
+
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        orderImportService.importOrders(new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), false)
+                .writeTo(results);
+        entityManager.flush();
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long statements = statistics.getPrepareStatementCount();
+        logger.info("Bulk import of " + IMPORT_ROWS + " orders with 3 options each: " + statements + " statements, " + elapsedMs + "ms");
+
+        String output = results.toString(StandardCharsets.UTF_8);
+        assertEquals(IMPORT_ROWS, output.split("\"status\":\"CREATED\"", -1).length - 1, output);
+        assertTrue(statements < IMPORT_ROWS / 2, "bulk import issued " + statements + " statements for " + IMPORT_ROWS + " rows");
+    }
+
+    private long measureCreateOrder(List<Long> options) {
+        statistics.clear();
+        long start = System.nanoTime();
+
+        createOrder(options);
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long statements = statistics.getPrepareStatementCount();
+        logger.info("createOrder with " + options.size() + " options: " + statements + " statements, " + elapsedMs + "ms");
+        return statements;
+    }
+
+    private void createOrder(List<Long> options) {
+        String id = UUID.randomUUID().toString();
+        Car car = new Car();
+        car.setVinNumber("VIN-" + id);
+        car.setRegistrationNumber("REG-" + id);
+        car.setInsurancePolicy("INS-" + id);
+
+        Order order = orderService.createOrder(car, carModel.getId(), customer.getId(), options);
+        entityManager.flush(); // the test transaction never commits, so send the pending writes now
+
+        assertNotNull(order.getId());
+    }
+
+    private User persistUser(Role role) {
+        UserProfile profile = new UserProfile();
+        profile.setFirstName("Benchmark");
+        profile.setLastName(role.name());
+        profile.setCpr(ThreadLocalRandom.current().nextLong(100_000_000L, 999_999_999L));
+
+        User user = new User();
+        user.setEmailAddress(UUID.randomUUID() + "@showroom.com");
+        user.setRole(role);
+        user.setUserStatus(UserStatus.ACTIVE);
+        user.setVerified(true);
+        user.setUserProfile(profile);
+        entityManager.persist(user);
+        return user;
+    }
+}
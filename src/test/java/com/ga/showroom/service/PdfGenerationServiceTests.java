@@ -0,0 +1,107 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.model.*;
+import com.ga.showroom.model.dto.ReceiptView;
+import com.ga.showroom.model.enums.Role;
+import com.ga.showroom.model.enums.UserStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Year;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class PdfGenerationServiceTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PdfGenerationService pdfGenerationService;
+
+    @Test
+    void loadReceiptViewIssuesTwoStatements() {
+        Order order = persistOrderWithOptions(3);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ReceiptView receipt = pdfGenerationService.loadReceiptView(order.getId());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(order.getId(), receipt.orderId());
+        assertEquals("Receipt", receipt.firstName());
+        assertEquals("Test Model", receipt.carModelName());
+        assertEquals(3, receipt.lines().size());
+    }
+
+    private Order persistOrderWithOptions(int optionCount) {
+        UserProfile profile = new UserProfile();
+        profile.setFirstName("Receipt");
+        profile.setLastName("Test");
+        profile.setCpr(ThreadLocalRandom.current().nextLong(100_000_000L, 999_999_999L));
+
+        User customer = new User();
+        customer.setEmailAddress(UUID.randomUUID() + "@showroom.com");
+        customer.setRole(Role.CUSTOMER);
+        customer.setUserStatus(UserStatus.ACTIVE);
+        customer.setVerified(true);
+        customer.setUserProfile(profile);
+        entityManager.persist(customer);
+
+        CarModel carModel = new CarModel();
+        carModel.setName("Test Model");
+        carModel.setMakeYear(Year.of(2025));
+        carModel.setManufacturer("Test Manufacturer");
+        carModel.setPrice(10000.0);
+        entityManager.persist(carModel);
+
+        OptionCategory category = new OptionCategory();
+        category.setName("Test Category");
+        entityManager.persist(category);
+
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setTotalPrice(10000.0 + optionCount * 100.0);
+        entityManager.persist(order);
+
+        Car car = new Car();
+        car.setVinNumber(UUID.randomUUID().toString());
+        car.setOwner(customer);
+        car.setCarModel(carModel);
+        car.setOrder(order);
+        entityManager.persist(car);
+
+        for (int i = 0; i < optionCount; i++) {
+            Option option = new Option();
+            option.setName("Test Option " + i);
+            option.setPrice(100.0);
+            option.setCarModel(carModel);
+            option.setOptionCategory(category);
+            entityManager.persist(option);
+
+            CarOption carOption = new CarOption();
+            carOption.setCar(car);
+            carOption.setOption(option);
+            entityManager.persist(carOption);
+        }
+
+        return order;
+    }
+}
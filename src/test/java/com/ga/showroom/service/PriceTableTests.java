@@ -0,0 +1,42 @@
+package com.ga.showroom.service;
+
+import com.ga.showroom.model.dto.OptionPrice;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTableTests {
+
+    @Test
+    void findsOptionPricesRegardlessOfInputOrder() {
+        PriceTable priceTable = new PriceTable(15000.0, List.of(
+                new OptionPrice(30L, 1L, 300.0),
+                new OptionPrice(10L, 1L, 100.0),
+                new OptionPrice(20L, 1L, 200.0)));
+
+        assertEquals(15000.0, priceTable.basePrice());
+        assertEquals(3, priceTable.size());
+        assertEquals(100.0, priceTable.priceAt(priceTable.indexOf(10L)));
+        assertEquals(200.0, priceTable.priceAt(priceTable.indexOf(20L)));
+        assertEquals(300.0, priceTable.priceAt(priceTable.indexOf(30L)));
+    }
+
+    @Test
+    void unknownOptionHasNegativeIndex() {
+        PriceTable priceTable = new PriceTable(15000.0, List.of(new OptionPrice(10L, 1L, 100.0)));
+
+        assertTrue(priceTable.indexOf(5L) < 0);
+        assertTrue(priceTable.indexOf(11L) < 0);
+        assertTrue(new PriceTable(15000.0, List.of()).indexOf(10L) < 0);
+    }
+
+    @Test
+    void missingPricesCountAsZero() {
+        PriceTable priceTable = new PriceTable(null, List.of(new OptionPrice(10L, 1L, null)));
+
+        assertEquals(0.0, priceTable.basePrice());
+        assertEquals(0.0, priceTable.priceAt(priceTable.indexOf(10L)));
+    }
+}
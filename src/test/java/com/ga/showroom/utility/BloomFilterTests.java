@@ -0,0 +1,37 @@
+package com.ga.showroom.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTests {
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("user:1"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    @Test
+    void addedKeysAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) filter.put("token:" + i);
+
+        for (int i = 0; i < 1_000; i++) assertTrue(filter.mightContain("token:" + i));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) filter.put("token:" + i);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other:" + i)) falsePositives++;
+        }
+
+        assertTrue(falsePositives < 3_000, "false positives: " + falsePositives); // 1% target, 3% allowed
+    }
+}
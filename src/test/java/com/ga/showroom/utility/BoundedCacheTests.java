@@ -0,0 +1,111 @@
+package com.ga.showroom.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTests {
+
+    @Test
+    void getReturnsStoredValueAndCountsHitsAndMisses() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a"); // b is now the least recently used
+        cache.put("c", "3");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMillis(50));
+        cache.put("a", "1");
+        cache.put("b", "2", System.currentTimeMillis() - 1);
+
+        assertNull(cache.get("b"));
+        Thread.sleep(100);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void putCapsExpiryAtDefaultTtl() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMillis(50));
+        cache.put("a", "1", System.currentTimeMillis() + 60_000);
+
+        Thread.sleep(100);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void putIfAbsentKeepsLiveEntry() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+        assertNull(cache.putIfAbsent("a", "1"));
+        assertEquals("1", cache.putIfAbsent("a", "2"));
+        assertEquals("1", cache.get("a"));
+    }
+
+    @Test
+    void putIfAbsentReplacesExpiredEntry() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", "1", System.currentTimeMillis() - 1);
+
+        assertNull(cache.putIfAbsent("a", "2"));
+        assertEquals("2", cache.get("a"));
+    }
+
+    @Test
+    void conditionalInvalidateOnlyRemovesTheSameValue() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        String first = new String("1");
+        String replacement = new String("1");
+        cache.put("a", replacement);
+
+        assertFalse(cache.invalidate("a", first)); // equal but not the same instance
+        assertSame(replacement, cache.get("a"));
+
+        assertTrue(cache.invalidate("a", replacement));
+        assertNull(cache.get("a"));
+        assertFalse(cache.invalidate("missing", replacement));
+    }
+
+    @Test
+    void invalidateRemovesMatchingEntries() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        cache.invalidate("a");
+        cache.invalidateIf((key, value) -> value % 2 == 0);
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.stats().size());
+    }
+}
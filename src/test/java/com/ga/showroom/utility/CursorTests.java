@@ -0,0 +1,42 @@
+package com.ga.showroom.utility;
+
+import com.ga.showroom.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTests {
+
+    @Test
+    void encodeDecodeRoundTrips() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_897_000), 42L);
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, Cursor.decode(token));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "token is URL safe: " + token);
+    }
+
+    @Test
+    void missingTokenStartsAtTheNewestRow() {
+        assertEquals(Cursor.START, Cursor.decode(null));
+        assertEquals(Cursor.START, Cursor.decode(" "));
+        assertEquals(Cursor.START, Cursor.decode(Cursor.START.encode()));
+    }
+
+    @Test
+    void invalidTokensAreRejected() {
+        assertThrows(BadRequestException.class, () -> Cursor.decode("not a cursor"));
+        assertThrows(BadRequestException.class, () -> Cursor.decode(encode("2026-03-14T15:09:26")));
+        assertThrows(BadRequestException.class, () -> Cursor.decode(encode("yesterday|42")));
+        assertThrows(BadRequestException.class, () -> Cursor.decode(encode("2026-03-14T15:09:26|abc")));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}